@@ -1,6 +1,6 @@
 package com.security.jwt.auditing;
 
-import com.security.jwt.entity.User;
+import com.security.jwt.security.UserDetail;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -27,11 +27,13 @@ public class ApplicationAuditAware implements AuditorAware<Integer> {
             return Optional.empty(); // Nếu không có người dùng nào được xác thực, trả về Optional.empty()
         }
 
-        // Lấy thông tin người dùng từ Principal
-        User userPrincipal = (User) authentication.getPrincipal();
+        // Lấy thông tin người dùng từ Principal (JwtAuthenticationFilter đặt vào một UserDetail)
+        if (!(authentication.getPrincipal() instanceof UserDetail userPrincipal)) {
+            return Optional.empty();
+        }
 
         // Trả về ID của người dùng (hoặc Optional.empty() nếu không có ID)
-        return Optional.ofNullable(userPrincipal.getId());
+        return Optional.ofNullable(userPrincipal.getUser().getId());
     }
 
 }
@@ -0,0 +1,60 @@
+package com.security.jwt.auditing;
+
+import com.security.jwt.event.SecurityEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi một lô sự kiện bảo mật bằng một câu INSERT nhiều dòng (multi-row VALUES).
+ */
+@Component
+@RequiredArgsConstructor
+public class SecurityEventJdbcWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO security_event (event_type, user_id, email, remote_address, detail, occurred_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Câu SQL theo số dòng, tránh phải nối chuỗi lại cho mỗi lô
+    private final Map<Integer, String> sqlByRowCount = new ConcurrentHashMap<>();
+
+    public void write(List<SecurityEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        String sql = sqlByRowCount.computeIfAbsent(events.size(), SecurityEventJdbcWriter::buildSql);
+
+        Object[] args = new Object[events.size() * COLUMN_COUNT];
+        int i = 0;
+        for (SecurityEvent event : events) {
+            args[i++] = event.type().name();
+            args[i++] = event.userId();
+            args[i++] = event.email();
+            args[i++] = event.remoteAddress();
+            args[i++] = event.detail();
+            args[i++] = Timestamp.from(event.occurredAt());
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private static String buildSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rowCount * (ROW_PLACEHOLDER.length() + 1));
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rowCount; row++) {
+            if (row > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        return sql.toString();
+    }
+}
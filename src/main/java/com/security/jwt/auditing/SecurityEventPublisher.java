@@ -0,0 +1,173 @@
+package com.security.jwt.auditing;
+
+import com.security.jwt.enum_constant.SecurityEventType;
+import com.security.jwt.event.SecurityEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hàng đợi sự kiện bảo mật có giới hạn (ring buffer) trong bộ nhớ. Luồng request chỉ đưa sự kiện vào hàng đợi,
+ * một luồng nền lấy ra theo lô và ghi xuống DB, nên authenticate/refreshToken không phải chờ ghi DB.
+ */
+@Slf4j
+@Component
+public class SecurityEventPublisher implements SmartLifecycle {
+
+    /**
+     * Cách xử lý khi hàng đợi đầy.
+     */
+    public enum OverflowPolicy {
+        // Bỏ sự kiện mới nhất
+        DROP_NEWEST,
+        // Bỏ sự kiện cũ nhất để nhường chỗ cho sự kiện mới
+        DROP_OLDEST,
+        // Chờ tối đa block-timeout, sau đó bỏ sự kiện mới nhất
+        BLOCK
+    }
+
+    private final SecurityEventJdbcWriter writer;
+    private final BlockingQueue<SecurityEvent> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final int batchSize;
+    private final Duration pollTimeout;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public SecurityEventPublisher(
+            SecurityEventJdbcWriter writer,
+            MeterRegistry meterRegistry,
+            @Value("${application.audit.security-events.capacity:8192}") int capacity,
+            @Value("${application.audit.security-events.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+            @Value("${application.audit.security-events.block-timeout:5ms}") Duration blockTimeout,
+            @Value("${application.audit.security-events.batch-size:200}") int batchSize,
+            @Value("${application.audit.security-events.poll-timeout:1s}") Duration pollTimeout) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.droppedCounter = Counter.builder("security.events.dropped").register(meterRegistry);
+        Gauge.builder("security.events.queued", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public void publish(SecurityEventType type, Integer userId, String email, String detail) {
+        SecurityEvent event = new SecurityEvent(type, userId, email, currentRemoteAddress(), detail, Instant.now());
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                // Có thể lặp khi nhiều luồng cùng tranh chỗ, mỗi lần bỏ đi một sự kiện cũ
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(event, blockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        droppedCounter.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCounter.increment();
+                }
+            }
+            default -> droppedCounter.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "security-event-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<SecurityEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SecurityEvent first = queue.poll(pollTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() đánh thức luồng; phần còn lại được ghi bên dưới
+                break;
+            }
+        }
+
+        // Ghi nốt các sự kiện còn lại khi ứng dụng tắt. Xóa cờ interrupt (stop() có thể gọi khi đang ghi) để driver
+        // JDBC không hủy các câu INSERT cuối, rồi đặt lại sau khi ghi xong
+        boolean interrupted = Thread.interrupted();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<SecurityEvent> batch) {
+        try {
+            writer.write(batch);
+        } catch (RuntimeException e) {
+            droppedCounter.increment(batch.size());
+            log.warn("Failed to write {} security events: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static String currentRemoteAddress() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+}
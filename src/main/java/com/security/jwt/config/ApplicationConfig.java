@@ -1,10 +1,12 @@
 package com.security.jwt.config;
 
 import com.security.jwt.auditing.ApplicationAuditAware;
+import com.security.jwt.security.InstrumentedAuthenticationProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -17,6 +19,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  * Cấu hình ứng dụng Spring, bao gồm cấu hình cho xác thực người dùng, mã hóa mật khẩu, và quản lý phiên làm việc.
  */
 @Configuration
+@EnableJpaAuditing(auditorAwareRef = "auditorAware")
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
@@ -28,8 +31,8 @@ public class ApplicationConfig {
    */
   @Bean
   public AuthenticationProvider authenticationProvider() {
-    // Tạo một đối tượng DaoAuthenticationProvider, là một implementation của AuthenticationProvider.
-    DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    // Tạo một đối tượng DaoAuthenticationProvider (kèm sự kiện JFR cho bước so khớp mật khẩu).
+    DaoAuthenticationProvider authProvider = new InstrumentedAuthenticationProvider();
 
     // Thiết lập UserDetailsService mà Spring Security sẽ sử dụng để tìm kiếm thông tin người dùng.
     authProvider.setUserDetailsService(userDetailsService);
@@ -0,0 +1,38 @@
+package com.security.jwt.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình CacheManager dựa trên Caffeine thay cho ConcurrentMapCache mặc định (không giới hạn).
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheRegionProperties.class)
+public class CacheConfig {
+
+    /**
+     * Cache được tạo động (ví dụ qua @Cacheable) cũng bị giới hạn kích thước và hết hạn theo cấu hình mặc định.
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheRegionProperties properties) {
+        CacheRegionProperties.Region defaults = properties.getDefaults();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(defaults.getMaximumSize())
+                .recordStats();
+        if (defaults.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(defaults.getExpireAfterWrite());
+        }
+        if (defaults.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(defaults.getExpireAfterAccess());
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder);
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
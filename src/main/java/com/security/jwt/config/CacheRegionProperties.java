@@ -0,0 +1,40 @@
+package com.security.jwt.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cấu hình cho từng vùng cache (region) dưới prefix "application.cache".
+ * Region không được khai báo riêng (kể cả cache tạo động qua @Cacheable) dùng cấu hình mặc định; region đã khai
+ * báo thay toàn bộ cấu hình mặc định, không kế thừa từng thuộc tính.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache")
+public class CacheRegionProperties {
+
+    private Region defaults = new Region();
+    private Map<String, Region> regions = new HashMap<>();
+
+    /**
+     * Lấy cấu hình của một region, nếu không có thì trả về cấu hình mặc định.
+     */
+    public Region forRegion(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    @Data
+    public static class Region {
+        // Số phần tử tối đa trước khi bị loại bỏ (eviction)
+        private long maximumSize = 10_000;
+        // Hết hạn sau một khoảng thời gian kể từ lần ghi cuối
+        private Duration expireAfterWrite;
+        // Hết hạn sau một khoảng thời gian kể từ lần truy cập cuối
+        private Duration expireAfterAccess;
+        // Làm mới bất đồng bộ (refresh-ahead), chỉ áp dụng cho region có loader
+        private Duration refreshAfterWrite;
+    }
+}
@@ -0,0 +1,79 @@
+package com.security.jwt.config;
+
+import com.security.jwt.datasource.ReplicaHealthChecker;
+import com.security.jwt.datasource.ReplicaNode;
+import com.security.jwt.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tách đọc/ghi: transaction read-only (ví dụ findByEmail) đọc từ read replica, còn lại ghi vào primary.
+ * Chỉ bật khi application.datasource.routing.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    /**
+     * Pool của primary nhận cấu hình spring.datasource.hikari.* (maximum-pool-size, timeout...) như DataSource mặc
+     * định của Spring Boot; pool-name mặc định là "primary".
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaDataSourceProperties properties) {
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + replica.getName());
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaNode(replica.getName(), dataSource));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    /**
+     * Kết nối thật chỉ được lấy khi chạy câu lệnh đầu tiên, lúc đó cờ read-only của transaction đã được thiết lập.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                     ReplicaDataSourceProperties properties) {
+        return new ReplicaHealthChecker(
+                replicaRoutingDataSource.getReplicas(),
+                properties.getRouting().getLagQuery(),
+                properties.getRouting().getMaxLag());
+    }
+}
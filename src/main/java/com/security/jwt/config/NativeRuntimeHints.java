@@ -0,0 +1,57 @@
+package com.security.jwt.config;
+
+import com.security.jwt.dto.request.AuthenticationRequest;
+import com.security.jwt.dto.request.ChangePasswordRequest;
+import com.security.jwt.dto.request.RegisterRequest;
+import com.security.jwt.dto.response.AuthenticationResponse;
+import com.security.jwt.enum_constant.Permission;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.exception.ErrorResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Khai báo reflection/resource hints cho AOT và GraalVM native image
+ * (build bằng profile "aot" hoặc "native" trong pom.xml).
+ */
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@RegisterReflectionForBinding({
+        AuthenticationRequest.class,
+        RegisterRequest.class,
+        ChangePasswordRequest.class,
+        AuthenticationResponse.class,
+        ErrorResponse.class,
+        Role.class,
+        Permission.class
+})
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt 0.11 khởi tạo phần cài đặt qua tên lớp (Classes.newInstance) và ServiceLoader
+    private static final String[] JJWT_IMPL_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_IMPL_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources()
+                .registerPattern("META-INF/services/io.jsonwebtoken.*")
+                // Cấu hình region cho second-level cache và cấu hình mặc định của Caffeine JCache
+                .registerPattern("hibernate-cache.conf")
+                .registerPattern("reference.conf");
+    }
+}
@@ -0,0 +1,37 @@
+package com.security.jwt.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình read replica dưới prefix "application.datasource".
+ * Primary vẫn dùng cấu hình spring.datasource.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datasource")
+public class ReplicaDataSourceProperties {
+
+    private Routing routing = new Routing();
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Routing {
+        private boolean enabled;
+        // Độ trễ sao chép tối đa trước khi replica bị loại khỏi vòng định tuyến
+        private Duration maxLag = Duration.ofSeconds(5);
+        // Truy vấn trả về độ trễ sao chép (giây); để trống nếu không đo
+        private String lagQuery;
+    }
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
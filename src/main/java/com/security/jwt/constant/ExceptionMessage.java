@@ -3,6 +3,22 @@ package com.security.jwt.constant;
 public class ExceptionMessage {
     public  static  String EMAIL_NOT_FOUND = "Email isn't found. Please, try again!";
     public  static  String REFRESH_TOKEN_INVALID = "Refresh Token is invalid. Please, try again!";
+    public  static final String INVALID_CREDENTIALS = "Email or password is incorrect.";
+    public  static final String AUTHENTICATION_REQUIRED = "Authentication is required.";
+    public  static final String TOKEN_INVALID = "Token is invalid.";
+    public  static final String TOKEN_EXPIRED = "Token has expired.";
+    public  static final String ACCESS_DENIED = "Access is denied.";
+    public  static final String SOURCE_BLOCKED = "Too many invalid requests. Please, try again later.";
+    public  static final String SERVER_OVERLOADED = "Server is busy. Please, try again later.";
+    public  static final String PASSWORD_BREACHED = "This password has appeared in a data breach. Please, choose another one.";
+
+    public  static final String FRIEND_SELF = "You can't send a friend request to yourself.";
+    public  static final String FRIEND_USER_NOT_FOUND = "User isn't found.";
+    public  static final String FRIEND_ALREADY = "You are already friends.";
+    public  static final String FRIEND_REQUEST_NOT_FOUND = "Friend request isn't found.";
+    public  static final String ROLE_NOT_FOUND = "Role isn't found.";
+    public  static final String PERMISSION_NOT_FOUND = "Permission isn't found: ";
+    public  static final String PERMISSION_CONFLICT = "Permission was changed concurrently. Please, try again!";
 
     public static String CannotRegisterAccount = "Bạn không thể đăng kí tài khoản với email này! Có thể nó đã được sử dụng !";
 }
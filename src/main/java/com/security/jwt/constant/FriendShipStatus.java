@@ -1,7 +1,7 @@
 package com.security.jwt.constant;
 
 public class FriendShipStatus {
-    public static   int NONE = 0;
-    public static int WAITING_ACCEPT= 100;
-    public static int FRIEND = 200;
+    public static final int NONE = 0;
+    public static final int WAITING_ACCEPT = 100;
+    public static final int FRIEND = 200;
 }
@@ -1,25 +1,42 @@
 package com.security.jwt.controller;
 
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.service.UserSearchService;
 import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/admin")
 @PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
 public class AdminController {
 
+    private final UserSearchService userSearchService;
+
     @GetMapping
     @PreAuthorize("hasAuthority('admin:read')")
     public String get() {
         return "GET:: admin controller";
     }
 
+    @GetMapping("/users/search")
+    @PreAuthorize("hasAuthority('admin:read')")
+    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String q,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userSearchService.search(q, limit));
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('admin:create')")
     @Hidden
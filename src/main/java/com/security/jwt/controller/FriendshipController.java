@@ -0,0 +1,68 @@
+package com.security.jwt.controller;
+
+import com.security.jwt.dto.response.FriendRequestResponse;
+import com.security.jwt.security.UserDetail;
+import com.security.jwt.service.FriendshipService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Trạng thái trả về là giá trị của FriendShipStatus (0 NONE, 100 WAITING_ACCEPT, 200 FRIEND).
+ */
+@RestController
+@RequestMapping("/api/v1/friends")
+@RequiredArgsConstructor
+public class FriendshipController {
+
+    private final FriendshipService friendshipService;
+
+    @GetMapping
+    public ResponseEntity<int[]> friends(Principal connectedUser) {
+        return ResponseEntity.ok(friendshipService.friendIds(userId(connectedUser)));
+    }
+
+    @GetMapping("/requests")
+    public ResponseEntity<List<FriendRequestResponse>> incomingRequests(Principal connectedUser) {
+        return ResponseEntity.ok(friendshipService.incomingRequests(userId(connectedUser)));
+    }
+
+    @PostMapping("/{userId}")
+    public ResponseEntity<Integer> sendRequest(@PathVariable int userId, Principal connectedUser) {
+        return ResponseEntity.ok(friendshipService.sendRequest(userId(connectedUser), userId));
+    }
+
+    @PostMapping("/{userId}/accept")
+    public ResponseEntity<Integer> accept(@PathVariable int userId, Principal connectedUser) {
+        return ResponseEntity.ok(friendshipService.accept(userId(connectedUser), userId));
+    }
+
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<?> remove(@PathVariable int userId, Principal connectedUser) {
+        friendshipService.remove(userId(connectedUser), userId);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{userId}/status")
+    public ResponseEntity<Integer> status(@PathVariable int userId, Principal connectedUser) {
+        return ResponseEntity.ok(friendshipService.status(userId(connectedUser), userId));
+    }
+
+    @GetMapping("/{userId}/mutual")
+    public ResponseEntity<int[]> mutualFriends(@PathVariable int userId, Principal connectedUser) {
+        return ResponseEntity.ok(friendshipService.mutualFriendIds(userId(connectedUser), userId));
+    }
+
+    private static int userId(Principal connectedUser) {
+        return ((UserDetail) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal()).getUser().getId();
+    }
+}
@@ -0,0 +1,66 @@
+package com.security.jwt.controller;
+
+import com.security.jwt.dto.request.BulkRoleUpdateRequest;
+import com.security.jwt.dto.request.RoleRequest;
+import com.security.jwt.dto.response.BulkRoleJobResponse;
+import com.security.jwt.dto.response.RoleResponse;
+import com.security.jwt.security.UserDetail;
+import com.security.jwt.service.BulkRoleAssignmentService;
+import com.security.jwt.service.RoleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/roles")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class RoleController {
+
+    private final RoleService roleService;
+    private final BulkRoleAssignmentService bulkRoleAssignmentService;
+
+    @GetMapping
+    public ResponseEntity<List<RoleResponse>> findAll() {
+        return ResponseEntity.ok(roleService.findAll());
+    }
+
+    @PutMapping("/{name}")
+    public ResponseEntity<?> saveRole(@PathVariable String name, @RequestBody RoleRequest request) {
+        roleService.saveRole(name, request);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/permissions/{name}")
+    public ResponseEntity<?> definePermission(@PathVariable String name) {
+        roleService.definePermission(name);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Đổi vai trò hàng loạt, chạy nền; trả về 202 kèm id công việc để theo dõi tiến độ.
+     */
+    @PostMapping("/{name}/assignments")
+    public ResponseEntity<BulkRoleJobResponse> assignRole(@PathVariable String name,
+                                                          @RequestBody BulkRoleUpdateRequest request,
+                                                          Principal connectedUser) {
+        Integer auditorId = ((UserDetail) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal()).getUser().getId();
+        return ResponseEntity.accepted().body(bulkRoleAssignmentService.submit(name, request, auditorId));
+    }
+
+    @GetMapping("/assignments/{jobId}")
+    public ResponseEntity<BulkRoleJobResponse> assignmentProgress(@PathVariable String jobId) {
+        return ResponseEntity.of(bulkRoleAssignmentService.find(jobId));
+    }
+}
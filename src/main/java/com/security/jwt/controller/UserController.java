@@ -1,10 +1,17 @@
 package com.security.jwt.controller;
 
 import com.security.jwt.dto.request.ChangePasswordRequest;
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.entity.User;
+import com.security.jwt.mapper.UserMapper;
+import com.security.jwt.security.UserDetail;
 import com.security.jwt.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,6 +24,13 @@ import java.security.Principal;
 public class UserController {
 
     private final UserService userService;
+    private final UserMapper userMapper;
+
+    @GetMapping("/me")
+    public ResponseEntity<UserResponse> me(Principal connectedUser) {
+        User user = ((UserDetail) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal()).getUser();
+        return ResponseEntity.ok(userMapper.toDTO(user));
+    }
 
     @PatchMapping
     public ResponseEntity<?> changePassword(
@@ -26,4 +40,10 @@ public class UserController {
         userService.changePassword(request, connectedUser);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutEverywhere(Principal connectedUser) {
+        userService.revokeAllTokens(connectedUser);
+        return ResponseEntity.ok().build();
+    }
 }
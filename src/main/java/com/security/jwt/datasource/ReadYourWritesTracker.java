@@ -0,0 +1,42 @@
+package com.security.jwt.datasource;
+
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.utils.CacheRegion;
+import com.security.jwt.utils.MyCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Ghi nhớ các email vừa được ghi (đăng ký, đổi mật khẩu, ...) trong một khoảng ngắn.
+ * Trong khoảng đó, truy vấn người dùng này luôn đọc từ primary để không thấy dữ liệu cũ trên replica.
+ * Thời gian ghi nhớ là expire-after-write của region "read-your-writes".
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    public static final String REGION = "read-your-writes";
+
+    private final CacheRegion<String, Boolean> recentWrites;
+
+    public ReadYourWritesTracker(MyCache myCache) {
+        this.recentWrites = myCache.region(REGION);
+    }
+
+    public void markWritten(String email) {
+        recentWrites.put(email, Boolean.TRUE);
+    }
+
+    public boolean isSticky(String email) {
+        return recentWrites.get(email) != null;
+    }
+
+    /**
+     * Thay đổi trên node này (sau commit) hoặc trên node khác (qua nhật ký thay đổi) đều được ghi nhớ.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.email() != null) {
+            markWritten(event.email());
+        }
+    }
+}
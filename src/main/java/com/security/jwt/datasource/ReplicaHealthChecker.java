@@ -0,0 +1,83 @@
+package com.security.jwt.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Kiểm tra định kỳ từng replica: replica không kết nối được hoặc có độ trễ sao chép lớn hơn maxLag
+ * sẽ bị loại khỏi vòng định tuyến cho tới lần kiểm tra tiếp theo.
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final List<ReplicaNode> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    /**
+     * @param lagQuery Câu truy vấn trả về độ trễ sao chép tính bằng giây (một dòng, một cột), có thể để trống.
+     */
+    public ReplicaHealthChecker(List<ReplicaNode> replicas, String lagQuery, Duration maxLag) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.routing.health-check-interval:5000}")
+    public void check() {
+        for (ReplicaNode replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(ReplicaNode replica) {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                markUnhealthy(replica, "connection is not valid");
+                return;
+            }
+            long lagMillis = measureLag(connection);
+            if (lagMillis > maxLag.toMillis()) {
+                markUnhealthy(replica, "replication lag " + lagMillis + "ms");
+                return;
+            }
+            replica.markHealthy(lagMillis);
+        } catch (SQLException e) {
+            markUnhealthy(replica, e.getMessage());
+        }
+    }
+
+    private long measureLag(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(lagQuery)) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return 0;
+                }
+                long lagSeconds = resultSet.getLong(1);
+                // NULL nghĩa là replica không sao chép (ví dụ Seconds_Behind_Source = NULL)
+                return resultSet.wasNull() ? Long.MAX_VALUE : lagSeconds * 1000;
+            }
+        }
+    }
+
+    private void markUnhealthy(ReplicaNode replica, String reason) {
+        if (replica.isHealthy()) {
+            log.warn("Read replica {} removed from routing: {}", replica.getName(), reason);
+        }
+        replica.markUnhealthy();
+    }
+}
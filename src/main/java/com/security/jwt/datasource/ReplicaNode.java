@@ -0,0 +1,31 @@
+package com.security.jwt.datasource;
+
+import lombok.Getter;
+
+import javax.sql.DataSource;
+
+/**
+ * Một read replica cùng trạng thái sức khỏe do {@link ReplicaHealthChecker} cập nhật.
+ */
+@Getter
+public class ReplicaNode {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+    private volatile long lagMillis;
+
+    public ReplicaNode(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    void markHealthy(long lagMillis) {
+        this.lagMillis = lagMillis;
+        this.healthy = true;
+    }
+
+    void markUnhealthy() {
+        this.healthy = false;
+    }
+}
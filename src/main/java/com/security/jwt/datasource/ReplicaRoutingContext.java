@@ -0,0 +1,32 @@
+package com.security.jwt.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Cho phép ép các truy vấn đọc trong luồng hiện tại chạy trên primary (read-your-writes).
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.security.jwt.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Định tuyến kết nối: transaction read-only đi tới một read replica khỏe (round-robin),
+ * mọi thao tác khác đi tới primary. Nếu không còn replica nào khỏe thì quay về primary.
+ * Cần được bọc bởi LazyConnectionDataSourceProxy để cờ read-only đã được thiết lập khi lấy kết nối thật.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<ReplicaNode> replicas;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaNode> replicas) {
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaNode replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    private String selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(counter.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    public List<ReplicaNode> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Đóng các connection pool của primary và replica khi ứng dụng tắt.
+     */
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.security.jwt.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Chọn người dùng cần đổi vai trò: theo danh sách id, hoặc (khi không có id) theo bộ lọc.
+ * Bộ lọc để trống nghĩa là không giới hạn theo tiêu chí đó.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRoleUpdateRequest {
+
+  private List<Integer> userIds;
+  // Chỉ người dùng đang có vai trò này
+  private String currentRole;
+  // Chỉ email thuộc tên miền này, ví dụ "sales.example.com"
+  private String emailDomain;
+}
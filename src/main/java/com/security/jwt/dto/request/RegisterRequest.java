@@ -1,6 +1,5 @@
 package com.security.jwt.dto.request;
 
-import com.security.jwt.enum_constant.Role;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,5 +15,4 @@ public class RegisterRequest {
   private String lastname;
   private String email;
   private String password;
-  private Role role;
 }
@@ -0,0 +1,18 @@
+package com.security.jwt.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoleRequest {
+
+  // Tên các quyền của vai trò, ví dụ "management:read"
+  private Set<String> permissions;
+}
@@ -0,0 +1,29 @@
+package com.security.jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Thông tin người dùng cho trang quản trị, kèm dữ liệu audit.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdminUserResponse {
+
+  private Integer id;
+  private String firstname;
+  private String lastname;
+  private String email;
+  private String role;
+  private int tokenEpoch;
+  private Instant createdDate;
+  private Integer createdBy;
+  private Instant lastModifiedDate;
+  private Integer lastModifiedBy;
+}
@@ -0,0 +1,29 @@
+package com.security.jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRoleJobResponse {
+
+  private String id;
+  private String role;
+  // RUNNING, COMPLETED hoặc FAILED
+  private String status;
+  // Số người dùng khớp lựa chọn
+  private long total;
+  // Số người dùng đã xét
+  private long processed;
+  // Số người dùng thực sự đổi vai trò (bỏ qua người đã có vai trò đích)
+  private long updated;
+  private Instant startedAt;
+  private Instant finishedAt;
+  private String error;
+}
@@ -0,0 +1,19 @@
+package com.security.jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FriendRequestResponse {
+
+  // Người gửi lời mời
+  private Integer userId;
+  private Instant createdDate;
+}
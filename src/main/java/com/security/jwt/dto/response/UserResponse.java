@@ -0,0 +1,19 @@
+package com.security.jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserResponse {
+
+  private Integer id;
+  private String firstname;
+  private String lastname;
+  private String email;
+  private String role;
+}
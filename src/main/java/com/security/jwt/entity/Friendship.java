@@ -0,0 +1,43 @@
+package com.security.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * Quan hệ bạn bè giữa hai người dùng, trạng thái lấy từ {@link com.security.jwt.constant.FriendShipStatus}.
+ * Chỉ mục (userIdX, status, userIdY) phủ truy vấn danh sách bạn theo từng phía của cặp mà không cần đọc bảng.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "friendship", indexes = {
+        @Index(name = "idx_friendship_user1_status", columnList = "userId1, status, userId2"),
+        @Index(name = "idx_friendship_user2_status", columnList = "userId2, status, userId1")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Friendship {
+
+  @EmbeddedId
+  private FriendshipId id;
+  // Người gửi lời mời kết bạn
+  @Column(nullable = false)
+  private Integer requesterId;
+  private int status;
+
+  @CreatedDate
+  @Column(updatable = false)
+  private Instant createdDate;
+  @LastModifiedDate
+  private Instant lastModifiedDate;
+
+}
@@ -0,0 +1,33 @@
+package com.security.jwt.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Khóa của quan hệ bạn bè: cặp id người dùng không có thứ tự, luôn lưu id nhỏ hơn ở userId1
+ * để mỗi cặp chỉ có một dòng và tra cứu "A và B có là bạn" là một lần tìm theo khóa chính.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class FriendshipId implements Serializable {
+
+  private Integer userId1;
+  private Integer userId2;
+
+  public static FriendshipId of(int userId, int otherUserId) {
+    return userId < otherUserId
+            ? new FriendshipId(userId, otherUserId)
+            : new FriendshipId(otherUserId, userId);
+  }
+
+  // Id của người còn lại trong cặp
+  public int other(int userId) {
+    return userId1 == userId ? userId2 : userId1;
+  }
+}
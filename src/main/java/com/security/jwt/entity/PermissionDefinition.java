@@ -0,0 +1,26 @@
+package com.security.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Định nghĩa một quyền (ví dụ "admin:read"). Id được gán tường minh và là vị trí bit của quyền
+ * trong bitmask (snapshot phân quyền, claim "p" của token compact), nên không bao giờ được đổi hay dùng lại.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "app_permission")
+public class PermissionDefinition {
+
+  @Id
+  private Integer id;
+  @Column(nullable = false, unique = true, length = 64)
+  private String name;
+
+}
@@ -0,0 +1,36 @@
+package com.security.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Định nghĩa một vai trò và tập quyền của nó. User tham chiếu vai trò theo tên.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "app_role")
+public class RoleDefinition {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+  @Column(nullable = false, unique = true, length = 64)
+  private String name;
+
+  @Builder.Default
+  @ManyToMany
+  @JoinTable(name = "app_role_permission",
+          joinColumns = @JoinColumn(name = "role_id"),
+          inverseJoinColumns = @JoinColumn(name = "permission_id"))
+  private Set<PermissionDefinition> permissions = new HashSet<>();
+
+}
@@ -0,0 +1,40 @@
+package com.security.jwt.entity;
+
+import com.security.jwt.enum_constant.SecurityEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Bảng nhật ký sự kiện bảo mật, chỉ ghi thêm (append-only).
+ * Dữ liệu được ghi theo lô bởi {@link com.security.jwt.auditing.SecurityEventPublisher}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "security_event", indexes = {
+        @Index(name = "idx_security_event_user_id", columnList = "userId"),
+        @Index(name = "idx_security_event_occurred_at", columnList = "occurredAt")
+})
+public class SecurityEventLog {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  @Enumerated(EnumType.STRING)
+  private SecurityEventType eventType;
+  private Integer userId;
+  private String email;
+  private String remoteAddress;
+  private String detail;
+  private Instant occurredAt;
+
+}
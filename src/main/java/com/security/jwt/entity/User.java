@@ -1,29 +1,73 @@
 package com.security.jwt.entity;
 
-import com.security.jwt.enum_constant.Role;
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "user")
+@Table(name = "user", indexes = {
+        @Index(name = "idx_user_firstname", columnList = "firstname"),
+        @Index(name = "idx_user_lastname", columnList = "lastname"),
+        @Index(name = "idx_user_last_login_at", columnList = "lastLoginAt")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User {
 
+  // Tên region trong second-level cache, kích thước cấu hình trong hibernate-cache.conf
+  public static final String CACHE_REGION = "user";
+  public static final String NATURAL_ID_CACHE_REGION = "user-natural-id";
+
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Integer id;
   private String firstname;
   private String lastname;
+  @NaturalId
   private String email;
   private String password;
-  @Enumerated(EnumType.STRING)
-  private Role role;
+  // Tên vai trò trong bảng app_role
+  @Column(length = 64)
+  private String role;
+  // Tăng lên để thu hồi mọi token đã cấp cho người dùng
+  @Column(nullable = false)
+  private int tokenEpoch;
+
+  @CreatedDate
+  @Column(updatable = false)
+  private Instant createdDate;
+  @CreatedBy
+  @Column(updatable = false)
+  private Integer createdBy;
+  @LastModifiedDate
+  private Instant lastModifiedDate;
+  @LastModifiedBy
+  private Integer lastModifiedBy;
+  // Chỉ ghi bằng JDBC (UserActivityTracker): save(User) với bản cũ trong cache không được ghi đè giá trị mới hơn
+  @Column(insertable = false, updatable = false)
+  private Instant lastLoginAt;
+  // Request đã xác thực gần nhất, ghi giống lastLoginAt
+  @Column(insertable = false, updatable = false)
+  private Instant lastSeenAt;
 
 }
@@ -0,0 +1,42 @@
+package com.security.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Bảng lạnh chứa người dùng lâu không đăng nhập, được {@link com.security.jwt.service.UserArchivalService}
+ * chuyển ra khỏi bảng user. Giữ nguyên id và mọi cột của User để khôi phục nguyên vẹn ở lần đăng nhập sau;
+ * bảng không nằm trong second-level cache và chỉ được ghi bằng JDBC.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_archive", indexes = @Index(name = "idx_user_archive_email", columnList = "email", unique = true))
+public class UserArchive {
+
+  @Id
+  private Integer id;
+  private String firstname;
+  private String lastname;
+  private String email;
+  private String password;
+  @Column(length = 64)
+  private String role;
+  @Column(nullable = false)
+  private int tokenEpoch;
+  private Instant createdDate;
+  private Integer createdBy;
+  private Instant lastModifiedDate;
+  private Integer lastModifiedBy;
+  private Instant lastLoginAt;
+  private Instant lastSeenAt;
+  private Instant archivedAt;
+
+}
@@ -0,0 +1,37 @@
+package com.security.jwt.entity;
+
+import com.security.jwt.enum_constant.UserChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Nhật ký thay đổi của User, được ghi cùng transaction với thay đổi trên bảng user.
+ * Mỗi node đọc bảng này theo id tăng dần để xóa cache cục bộ đã cũ.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_change_log", indexes = @Index(name = "idx_user_change_log_created_at", columnList = "createdAt"))
+public class UserChangeLog {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  private Integer userId;
+  private String email;
+  @Enumerated(EnumType.STRING)
+  private UserChangeType changeType;
+  // Giá trị sau thay đổi, node khác áp dụng trực tiếp không cần đọc lại bảng user
+  @Column(length = 64)
+  private String role;
+  private Integer tokenEpoch;
+  private Instant createdAt;
+
+}
@@ -19,6 +19,10 @@ import static com.security.jwt.enum_constant.Permission.MANAGER_DELETE;
 import static com.security.jwt.enum_constant.Permission.MANAGER_READ;
 import static com.security.jwt.enum_constant.Permission.MANAGER_UPDATE;
 
+/**
+ * Các vai trò có sẵn, chỉ dùng để khởi tạo bảng app_role khi còn trống và làm giá trị mặc định
+ * trước khi nạp từ DB. Vai trò và quyền thực tế được đọc từ DB (xem RoleRegistry).
+ */
 @RequiredArgsConstructor
 public enum Role {
 //  USER,
@@ -44,7 +48,8 @@ public enum Role {
                   MANAGER_DELETE,
                   MANAGER_CREATE
           )
-  )
+  ),
+  VOLUNTEER(Collections.emptySet())
 
   ;
 
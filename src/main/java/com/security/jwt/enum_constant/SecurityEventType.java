@@ -0,0 +1,10 @@
+package com.security.jwt.enum_constant;
+
+public enum SecurityEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    TOKEN_REFRESH,
+    TOKEN_REFRESH_FAILURE,
+    PASSWORD_CHANGED,
+    PASSWORD_CHANGE_FAILURE
+}
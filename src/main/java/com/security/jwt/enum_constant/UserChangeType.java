@@ -0,0 +1,14 @@
+package com.security.jwt.enum_constant;
+
+public enum UserChangeType {
+    REGISTER,
+    PASSWORD_CHANGED,
+    ROLE_CHANGED,
+    TOKENS_REVOKED,
+    FRIENDSHIP_CHANGED,
+    // Định nghĩa vai trò/quyền thay đổi (không gắn với người dùng cụ thể)
+    ROLES_CHANGED,
+    // Người dùng được chuyển sang bảng user_archive / khôi phục về bảng user
+    ARCHIVED,
+    RESTORED
+}
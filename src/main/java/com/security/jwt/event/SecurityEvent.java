@@ -0,0 +1,18 @@
+package com.security.jwt.event;
+
+import com.security.jwt.enum_constant.SecurityEventType;
+
+import java.time.Instant;
+
+/**
+ * Một sự kiện bảo mật (đăng nhập, làm mới token, đổi mật khẩu, ...) chờ được ghi vào bảng security_event.
+ */
+public record SecurityEvent(
+        SecurityEventType type,
+        Integer userId,
+        String email,
+        String remoteAddress,
+        String detail,
+        Instant occurredAt
+) {
+}
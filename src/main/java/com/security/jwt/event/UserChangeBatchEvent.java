@@ -0,0 +1,10 @@
+package com.security.jwt.event;
+
+import java.util.List;
+
+/**
+ * Các thay đổi được commit cùng nhau (một transaction, hoặc một trang nhật ký do poller đọc), phát thêm sau các
+ * {@link UserChangedEvent} riêng lẻ cho những listener áp dụng cả lô rẻ hơn từng phần tử (ví dụ bảng copy-on-write).
+ */
+public record UserChangeBatchEvent(List<UserChangedEvent> changes) {
+}
@@ -0,0 +1,15 @@
+package com.security.jwt.event;
+
+import com.security.jwt.enum_constant.UserChangeType;
+
+/**
+ * Sự kiện phát ra khi một User thay đổi, trên node hiện tại hoặc đọc được từ nhật ký thay đổi của node khác.
+ * Vai trò và token epoch sau thay đổi đi kèm khi biết được, để node nhận áp dụng mà không phải đọc lại DB
+ * (null nếu thay đổi không liên quan hoặc dòng nhật ký ghi trước khi có hai cột này).
+ */
+public record UserChangedEvent(Integer userId, String email, UserChangeType changeType, String role, Integer tokenEpoch) {
+
+    public UserChangedEvent(Integer userId, String email, UserChangeType changeType) {
+        this(userId, email, changeType, null, null);
+    }
+}
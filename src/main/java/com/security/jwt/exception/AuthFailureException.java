@@ -0,0 +1,53 @@
+package com.security.jwt.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+
+/**
+ * Gốc của các lỗi xác thực/phân quyền. Không ghi stack trace và không mang trạng thái theo request,
+ * nên mỗi loại lỗi dùng chung một instance; body {@link ErrorResponse} được serialize sẵn một lần.
+ * Nhờ vậy request thất bại (phần lớn request khi bị tấn công) rẻ ngang request thành công.
+ */
+public abstract class AuthFailureException extends RuntimeException {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpStatus status;
+    private final byte[] body;
+
+    protected AuthFailureException(HttpStatus status, String description) {
+        super(description, null, false, false);
+        this.status = status;
+        try {
+            this.body = OBJECT_MAPPER.writeValueAsBytes(new ErrorResponse(status.value(), description));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Ghi thẳng lỗi ra response, dùng trong filter (ngoài phạm vi {@link GlobalExceptionHandler}).
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    public ResponseEntity<byte[]> toResponseEntity() {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
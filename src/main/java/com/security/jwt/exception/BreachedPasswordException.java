@@ -0,0 +1,7 @@
+package com.security.jwt.exception;
+
+public class BreachedPasswordException extends RuntimeException {
+    public BreachedPasswordException(String message) {
+        super(message);
+    }
+}
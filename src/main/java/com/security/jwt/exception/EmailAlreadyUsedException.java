@@ -0,0 +1,7 @@
+package com.security.jwt.exception;
+
+public class EmailAlreadyUsedException extends RuntimeException {
+    public EmailAlreadyUsedException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,19 @@
 package com.security.jwt.exception;
 
-public class EmailNotFoundException extends  RuntimeException {
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Là một {@link UsernameNotFoundException} để DaoAuthenticationProvider vẫn chạy so khớp mật khẩu giả
+ * khi không tìm thấy email, giữ thời gian phản hồi như với email tồn tại.
+ */
+public class EmailNotFoundException extends UsernameNotFoundException {
     public  EmailNotFoundException(String message) {
         super(message);
     }
+
+    // Được ném cho mỗi lần thử đăng nhập bằng email không tồn tại, không cần stack trace
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
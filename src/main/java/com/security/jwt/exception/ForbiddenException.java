@@ -0,0 +1,16 @@
+package com.security.jwt.exception;
+
+import com.security.jwt.constant.ExceptionMessage;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Đã xác thực nhưng không đủ quyền truy cập tài nguyên.
+ */
+public final class ForbiddenException extends AuthFailureException {
+
+    public static final ForbiddenException INSTANCE = new ForbiddenException();
+
+    private ForbiddenException() {
+        super(HttpStatus.FORBIDDEN, ExceptionMessage.ACCESS_DENIED);
+    }
+}
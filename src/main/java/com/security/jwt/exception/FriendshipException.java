@@ -0,0 +1,7 @@
+package com.security.jwt.exception;
+
+public class FriendshipException extends  RuntimeException {
+    public  FriendshipException(String message) {
+        super(message);
+    }
+}
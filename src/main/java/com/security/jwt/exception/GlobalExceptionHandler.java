@@ -3,6 +3,8 @@ package com.security.jwt.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -42,6 +44,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
 
     }
+    @ExceptionHandler({AuthFailureException.class})
+    public ResponseEntity<byte[]> handleAuthFailureException(AuthFailureException ex) {
+        return ex.toResponseEntity();
+    }
+
+    // @PreAuthorize từ chối trong controller (ngoài filter chain nên accessDeniedHandler không bắt được)
+    @ExceptionHandler({AccessDeniedException.class})
+    public ResponseEntity<byte[]> handleAccessDeniedException(AccessDeniedException ex) {
+        return ForbiddenException.INSTANCE.toResponseEntity();
+    }
+
+    @ExceptionHandler({AuthenticationException.class})
+    public ResponseEntity<byte[]> handleAuthenticationException(AuthenticationException ex) {
+        return InvalidTokenException.MISSING.toResponseEntity();
+    }
+
     @ExceptionHandler({UnAuthorizedException.class})
     public ResponseEntity<ErrorResponse> handleUnAuthorizedException(UnAuthorizedException ex) {
         ErrorResponse errorResponse = new ErrorResponse();
@@ -60,6 +78,51 @@ public class GlobalExceptionHandler {
 
     }
 
+    @ExceptionHandler({FriendshipException.class})
+    public ResponseEntity<ErrorResponse> handleFriendshipException(FriendshipException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setCode(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setDescription(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+    }
+
+    @ExceptionHandler({RoleException.class})
+    public ResponseEntity<ErrorResponse> handleRoleException(RoleException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setCode(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setDescription(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+    }
+
+    @ExceptionHandler({RoleConflictException.class})
+    public ResponseEntity<ErrorResponse> handleRoleConflictException(RoleConflictException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setCode(HttpStatus.CONFLICT.value());
+        errorResponse.setDescription(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+
+    }
+
+    @ExceptionHandler({BreachedPasswordException.class})
+    public ResponseEntity<ErrorResponse> handleBreachedPasswordException(BreachedPasswordException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setCode(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setDescription(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+    }
+
+    @ExceptionHandler({EmailAlreadyUsedException.class})
+    public ResponseEntity<ErrorResponse> handleEmailAlreadyUsedException(EmailAlreadyUsedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setCode(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setDescription(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+    }
+
     @ExceptionHandler({BusinessLogicException.class})
     public ResponseEntity<ErrorResponse> handleBusinessLogicException(BusinessLogicException ex) {
         ErrorResponse errorResponse = new ErrorResponse();
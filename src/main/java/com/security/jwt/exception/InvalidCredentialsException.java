@@ -0,0 +1,16 @@
+package com.security.jwt.exception;
+
+import com.security.jwt.constant.ExceptionMessage;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Sai email hoặc mật khẩu. Không phân biệt hai trường hợp để không tiết lộ email nào tồn tại.
+ */
+public final class InvalidCredentialsException extends AuthFailureException {
+
+    public static final InvalidCredentialsException INSTANCE = new InvalidCredentialsException();
+
+    private InvalidCredentialsException() {
+        super(HttpStatus.UNAUTHORIZED, ExceptionMessage.INVALID_CREDENTIALS);
+    }
+}
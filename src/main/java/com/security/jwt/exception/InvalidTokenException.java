@@ -0,0 +1,19 @@
+package com.security.jwt.exception;
+
+import com.security.jwt.constant.ExceptionMessage;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thiếu token, token sai định dạng/chữ ký, đã bị thu hồi hoặc đã hết hạn.
+ * Hết hạn được tách riêng để client biết cần làm mới token.
+ */
+public final class InvalidTokenException extends AuthFailureException {
+
+    public static final InvalidTokenException MISSING = new InvalidTokenException(ExceptionMessage.AUTHENTICATION_REQUIRED);
+    public static final InvalidTokenException INVALID = new InvalidTokenException(ExceptionMessage.TOKEN_INVALID);
+    public static final InvalidTokenException EXPIRED = new InvalidTokenException(ExceptionMessage.TOKEN_EXPIRED);
+
+    private InvalidTokenException(String description) {
+        super(HttpStatus.UNAUTHORIZED, description);
+    }
+}
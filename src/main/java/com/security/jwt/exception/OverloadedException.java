@@ -0,0 +1,16 @@
+package com.security.jwt.exception;
+
+import com.security.jwt.constant.ExceptionMessage;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Request bị từ chối ngay vì số request đang xử lý đã chạm giới hạn đồng thời hiện tại.
+ */
+public final class OverloadedException extends AuthFailureException {
+
+    public static final OverloadedException INSTANCE = new OverloadedException();
+
+    private OverloadedException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, ExceptionMessage.SERVER_OVERLOADED);
+    }
+}
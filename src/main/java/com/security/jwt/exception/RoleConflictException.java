@@ -0,0 +1,7 @@
+package com.security.jwt.exception;
+
+public class RoleConflictException extends RuntimeException {
+    public RoleConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.security.jwt.exception;
+
+public class RoleException extends  RuntimeException {
+    public  RoleException(String message) {
+        super(message);
+    }
+}
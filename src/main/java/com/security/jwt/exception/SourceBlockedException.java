@@ -0,0 +1,16 @@
+package com.security.jwt.exception;
+
+import com.security.jwt.constant.ExceptionMessage;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Địa chỉ nguồn bị chặn tạm thời do gửi quá nhiều token không hợp lệ.
+ */
+public final class SourceBlockedException extends AuthFailureException {
+
+    public static final SourceBlockedException INSTANCE = new SourceBlockedException();
+
+    private SourceBlockedException() {
+        super(HttpStatus.TOO_MANY_REQUESTS, ExceptionMessage.SOURCE_BLOCKED);
+    }
+}
@@ -0,0 +1,24 @@
+package com.security.jwt.jfr;
+
+import com.security.jwt.utils.StringHash;
+
+import java.security.SecureRandom;
+
+/**
+ * Tiện ích chung cho các sự kiện JFR của luồng xác thực. Token, email và địa chỉ nguồn không bao giờ được ghi
+ * nguyên văn vào bản ghi JFR: chỉ ghi giá trị băm 64 bit với seed ngẫu nhiên theo tiến trình, đủ để nối các sự kiện
+ * của cùng một token/người dùng trong một bản ghi nhưng không tra ngược được bằng từ điển.
+ */
+public final class AuthEvents {
+
+    public static final String CATEGORY = "Authentication";
+
+    private static final long SEED = new SecureRandom().nextLong();
+
+    private AuthEvents() {
+    }
+
+    public static long hash(String value) {
+        return value == null ? 0 : StringHash.hash64(value, SEED);
+    }
+}
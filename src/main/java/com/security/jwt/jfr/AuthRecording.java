@@ -0,0 +1,69 @@
+package com.security.jwt.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bản ghi JFR liên tục do ứng dụng tự bắt đầu: cấu hình "default" của JDK cộng với jfr/auth.jfc,
+ * giữ trên đĩa trong giới hạn max-age/max-size và được dump ra file khi JVM dừng.
+ * Chỉ bật khi application.jfr.enabled=true; khi tắt, các sự kiện trong package này gần như không tốn gì.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.jfr", name = "enabled", havingValue = "true")
+public class AuthRecording {
+
+    @Value("${application.jfr.max-age:6h}")
+    private Duration maxAge;
+
+    @Value("${application.jfr.max-size:268435456}")
+    private long maxSize;
+
+    @Value("${application.jfr.destination:auth.jfr}")
+    private String destination;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource("jfr/auth.jfc").getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        recording = new Recording(settings);
+        recording.setName("auth");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize);
+        recording.setDumpOnExit(true);
+        recording.setDestination(Path.of(destination));
+        recording.start();
+        log.info("JFR recording 'auth' started, dumps to {}", destination);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            // stop() ghi bản ghi ra destination
+            recording.stop();
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.security.jwt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.security.jwt.FilterDecision")
+@Label("Filter Decision")
+@Category(AuthEvents.CATEGORY)
+@Description("Outcome of the JWT authentication filter, excluding the time spent in the rest of the chain")
+public class FilterDecisionEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Source Hash")
+    public long sourceHash;
+
+    // BLOCKED, SKIPPED, ANONYMOUS, REPLAYED, AUTHENTICATED, REVOKED, EXPIRED hoặc INVALID
+    @Label("Decision")
+    public String decision;
+}
@@ -0,0 +1,20 @@
+package com.security.jwt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.security.jwt.PasswordMatch")
+@Label("Password Match")
+@Category(AuthEvents.CATEGORY)
+@Description("Password hash comparison during login")
+public class PasswordMatchEvent extends Event {
+
+    @Label("User Hash")
+    public long userHash;
+
+    @Label("Matched")
+    public boolean matched;
+}
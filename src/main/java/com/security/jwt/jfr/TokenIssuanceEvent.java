@@ -0,0 +1,27 @@
+package com.security.jwt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.security.jwt.TokenIssuance")
+@Label("Token Issuance")
+@Category(AuthEvents.CATEGORY)
+@Description("Building and signing an access or refresh token")
+public class TokenIssuanceEvent extends Event {
+
+    @Label("User Hash")
+    public long userHash;
+
+    // ACCESS hoặc REFRESH
+    @Label("Token Type")
+    public String tokenType;
+
+    @Label("Profile")
+    public String profile;
+
+    @Label("Token Length")
+    public int tokenLength;
+}
@@ -0,0 +1,24 @@
+package com.security.jwt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.security.jwt.TokenVerification")
+@Label("Token Verification")
+@Category(AuthEvents.CATEGORY)
+@Description("Signature, expiration and token epoch check of a JWT")
+public class TokenVerificationEvent extends Event {
+
+    @Label("Token Hash")
+    public long tokenHash;
+
+    @Label("User Hash")
+    public long userHash;
+
+    // VALID, SUBJECT_MISMATCH, EXPIRED, REVOKED hoặc INVALID
+    @Label("Outcome")
+    public String outcome;
+}
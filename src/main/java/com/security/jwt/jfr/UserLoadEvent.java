@@ -0,0 +1,25 @@
+package com.security.jwt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.security.jwt.UserLoad")
+@Label("User Load")
+@Category(AuthEvents.CATEGORY)
+@Description("Loading a user by email for authentication")
+public class UserLoadEvent extends Event {
+
+    @Label("User Hash")
+    public long userHash;
+
+    // FOUND, NOT_FOUND hoặc FILTERED (bị known-email filter từ chối, không truy vấn DB)
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Primary")
+    @Description("Read from the primary instead of a replica")
+    public boolean primary;
+}
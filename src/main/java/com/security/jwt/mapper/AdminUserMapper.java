@@ -0,0 +1,8 @@
+package com.security.jwt.mapper;
+
+import com.security.jwt.dto.response.AdminUserResponse;
+import com.security.jwt.entity.User;
+
+@org.mapstruct.Mapper(config = MapStructConfig.class)
+public interface AdminUserMapper extends Mapper<User, AdminUserResponse> {
+}
@@ -0,0 +1,12 @@
+package com.security.jwt.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Cấu hình chung cho các mapper MapStruct: sinh bean Spring, bỏ qua trường đích không có ở nguồn
+ * (mật khẩu, audit...) thay vì cảnh báo lúc biên dịch.
+ */
+@MapperConfig(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MapStructConfig {
+}
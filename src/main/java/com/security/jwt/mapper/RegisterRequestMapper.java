@@ -0,0 +1,23 @@
+package com.security.jwt.mapper;
+
+import com.security.jwt.dto.request.RegisterRequest;
+import com.security.jwt.entity.User;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper RegisterRequest ↔ User. Mật khẩu không bao giờ được sao chép qua mapper:
+ * service tự mã hóa khi tạo User, và không trả mật khẩu ngược ra DTO. Vai trò do service gán (luôn USER),
+ * không lấy từ request.
+ */
+@org.mapstruct.Mapper(config = MapStructConfig.class)
+public interface RegisterRequestMapper extends Mapper<User, RegisterRequest> {
+
+    @Override
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "role", ignore = true)
+    User toEntity(RegisterRequest dto);
+
+    @Override
+    @Mapping(target = "password", ignore = true)
+    RegisterRequest toDTO(User entity);
+}
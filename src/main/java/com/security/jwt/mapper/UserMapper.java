@@ -0,0 +1,11 @@
+package com.security.jwt.mapper;
+
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.entity.User;
+
+/**
+ * Mapper User ↔ UserResponse, cài đặt được MapStruct sinh lúc biên dịch (UserMapperImpl).
+ */
+@org.mapstruct.Mapper(config = MapStructConfig.class)
+public interface UserMapper extends Mapper<User, UserResponse> {
+}
@@ -0,0 +1,30 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.Friendship;
+import com.security.jwt.entity.FriendshipId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FriendshipRepository extends JpaRepository<Friendship, FriendshipId> {
+
+  // Hai truy vấn theo từng phía của cặp thay vì một truy vấn OR, để mỗi truy vấn dùng trọn một chỉ mục.
+  // Người dùng đã lưu trữ (không còn trong bảng user) bị loại bằng một lần tra khóa chính mỗi dòng
+  @Query("select f.id.userId2 from Friendship f where f.id.userId1 = :userId and f.status = :status"
+          + " and exists (select 1 from User u where u.id = f.id.userId2)")
+  List<Integer> findUserId2ByUserId1AndStatus(@Param("userId") Integer userId, @Param("status") int status);
+
+  @Query("select f.id.userId1 from Friendship f where f.id.userId2 = :userId and f.status = :status"
+          + " and exists (select 1 from User u where u.id = f.id.userId1)")
+  List<Integer> findUserId1ByUserId2AndStatus(@Param("userId") Integer userId, @Param("status") int status);
+
+  // Lời mời đang chờ người dùng chấp nhận (do người khác gửi)
+  @Query("select f from Friendship f where (f.id.userId1 = :userId or f.id.userId2 = :userId)"
+          + " and f.status = com.security.jwt.constant.FriendShipStatus.WAITING_ACCEPT and f.requesterId <> :userId"
+          + " and exists (select 1 from User u where u.id = f.requesterId)"
+          + " order by f.createdDate desc")
+  List<Friendship> findIncomingRequests(@Param("userId") Integer userId);
+
+}
@@ -0,0 +1,20 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.PermissionDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PermissionDefinitionRepository extends JpaRepository<PermissionDefinition, Integer> {
+
+  Optional<PermissionDefinition> findByName(String name);
+
+  List<PermissionDefinition> findByNameIn(Collection<String> names);
+
+  @Query("select coalesce(max(p.id), -1) from PermissionDefinition p")
+  int findMaxId();
+
+}
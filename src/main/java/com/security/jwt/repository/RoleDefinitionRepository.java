@@ -0,0 +1,18 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.RoleDefinition;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RoleDefinitionRepository extends JpaRepository<RoleDefinition, Integer> {
+
+  // Nạp vai trò cùng quyền trong một truy vấn khi dựng snapshot phân quyền
+  @EntityGraph(attributePaths = "permissions")
+  List<RoleDefinition> findAllBy();
+
+  Optional<RoleDefinition> findByName(String name);
+
+}
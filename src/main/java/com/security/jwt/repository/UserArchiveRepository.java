@@ -0,0 +1,24 @@
+package com.security.jwt.repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.security.jwt.entity.UserArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface UserArchiveRepository extends JpaRepository<UserArchive, Integer> {
+
+  Optional<UserArchive> findByEmail(String email);
+
+  boolean existsByEmail(String email);
+
+  // Email của người dùng đã lưu trữ vẫn là email đã đăng ký; đọc dạng stream như UserRepository.streamAllEmails
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("select a.email from UserArchive a")
+  Stream<String> streamAllEmails();
+
+}
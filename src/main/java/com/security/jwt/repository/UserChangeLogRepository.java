@@ -0,0 +1,26 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.UserChangeLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserChangeLogRepository extends JpaRepository<UserChangeLog, Long> {
+
+  List<UserChangeLog> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+  @Query("select coalesce(max(c.id), 0) from UserChangeLog c")
+  long findMaxId();
+
+  @Modifying
+  @Transactional
+  @Query("delete from UserChangeLog c where c.createdAt < :cutoff")
+  int deleteByCreatedAtBefore(@Param("cutoff") Instant cutoff);
+
+}
@@ -1,12 +1,38 @@
 package com.security.jwt.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.security.jwt.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
 
+  @Override
+  @Transactional(readOnly = true)
   Optional<User> findByEmail(String email);
 
+  @Query("select u.id, u.tokenEpoch from User u where u.tokenEpoch > 0")
+  List<Object[]> findNonZeroTokenEpochs();
+
+  @Query("select u.tokenEpoch from User u where u.id = :id")
+  Optional<Integer> findTokenEpochById(@Param("id") Integer id);
+
+  // Đọc dần theo lô thay vì nạp toàn bộ bảng vào bộ nhớ; phải gọi trong transaction và đóng stream sau khi dùng
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("select u.email from User u")
+  Stream<String> streamAllEmails();
+
+  // Các trường dùng cho chỉ mục tìm kiếm theo tiền tố, đọc dạng stream như streamAllEmails
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("select u.id, u.email, u.firstname, u.lastname, u.role from User u")
+  Stream<Object[]> streamSearchFields();
+
 }
@@ -0,0 +1,16 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.User;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+  Optional<User> findByEmail(String email);
+
+  // Tìm theo tiền tố bằng LIKE 'prefix%'; ký tự % và _ trong prefix phải được escape bằng '!'
+  List<User> searchByPrefix(String prefix, Pageable pageable);
+
+}
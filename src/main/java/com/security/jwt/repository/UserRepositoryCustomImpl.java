@@ -0,0 +1,59 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  private static final List<String> SEARCH_COLUMNS = List.of("email", "firstname", "lastname");
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Tìm người dùng theo email qua natural id: email -> id lấy từ natural-id cache,
+   * User lấy từ second-level cache, chỉ truy vấn SQL khi cache chưa có.
+   */
+  @Override
+  public Optional<User> findByEmail(String email) {
+    return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(User.class)
+            .loadOptional(email);
+  }
+
+  /**
+   * Một truy vấn LIKE 'prefix%' cho mỗi cột (email, firstname, lastname) thay vì một truy vấn OR, để mỗi truy vấn
+   * quét một khoảng trên index của cột đó; mỗi truy vấn lấy tối đa (trang + 1) * kích thước trang dòng đầu theo
+   * email, rồi gộp bỏ trùng và cắt trang theo email.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<User> searchByPrefix(String prefix, Pageable pageable) {
+    int limit = (int) pageable.getOffset() + pageable.getPageSize();
+    Map<Integer, User> matches = new HashMap<>();
+    for (String column : SEARCH_COLUMNS) {
+      entityManager.createQuery("select u from User u where u." + column + " like :prefix escape '!' order by u.email",
+                      User.class)
+              .setParameter("prefix", prefix)
+              .setMaxResults(limit)
+              .getResultList()
+              .forEach(user -> matches.putIfAbsent(user.getId(), user));
+    }
+    return matches.values().stream()
+            .sorted(Comparator.comparing(User::getEmail))
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .toList();
+  }
+
+}
@@ -2,15 +2,33 @@ package com.security.jwt.security;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.security.jwt.auditing.SecurityEventPublisher;
 import com.security.jwt.dto.request.AuthenticationRequest;
 import com.security.jwt.dto.request.RegisterRequest;
 import com.security.jwt.dto.response.AuthenticationResponse;
 import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.enum_constant.SecurityEventType;
+import com.security.jwt.enum_constant.UserChangeType;
 import com.security.jwt.repository.UserRepository;
+import com.security.jwt.service.UserActivityTracker;
+import com.security.jwt.service.UserArchivalService;
+import com.security.jwt.service.UserChangeLogService;
+import com.security.jwt.constant.ExceptionMessage;
+import com.security.jwt.exception.BreachedPasswordException;
+import com.security.jwt.exception.EmailAlreadyUsedException;
+import com.security.jwt.exception.InvalidCredentialsException;
+import com.security.jwt.exception.InvalidTokenException;
+import com.security.jwt.mapper.RegisterRequestMapper;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +39,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.io.IOException;
@@ -37,22 +56,53 @@ public class AuthenticationService {
   private final JwtService jwtService; // Dịch vụ xử lý token JWT
   private final AuthenticationManager authenticationManager; // Quản lý xác thực
   private final UserDetailService userDetailService;
+  private final UserChangeLogService userChangeLogService;
+  private final SecurityEventPublisher securityEventPublisher; // Ghi nhật ký sự kiện bảo mật bất đồng bộ
+  private final RejectedTokenCache rejectedTokenCache; // Refresh token vừa bị từ chối
+  private final SourceBlocklist sourceBlocklist; // Đếm token bị từ chối theo địa chỉ nguồn
+  private final RoleRegistry roleRegistry; // Vai trò hợp lệ lấy từ snapshot phân quyền
+  private final RegisterRequestMapper registerRequestMapper;
+  private final BreachedPasswordChecker breachedPasswordChecker; // Danh sách mật khẩu bị lộ (file memory-map)
+  private final RefreshCoalescer refreshCoalescer; // Gộp các lần làm mới đồng thời cùng refresh token
+  private final UserArchivalService userArchivalService; // Người dùng lâu không đăng nhập nằm ở bảng lưu trữ
+  private final UserActivityTracker userActivityTracker; // Thời điểm đăng nhập/hoạt động cuối, ghi theo lô
+  private final KnownEmailFilter knownEmailFilter; // Email đã đăng ký, từ chối email lạ không cần truy vấn DB
+  private final ObjectMapper objectMapper; // ObjectMapper của Spring, cùng cấu hình Jackson với các controller
+
+  // ObjectWriter bất biến, an toàn luồng: dựng một lần thay vì cho mỗi lần làm mới token
+  private ObjectWriter responseWriter;
+
+  @PostConstruct
+  void initResponseWriter() {
+    responseWriter = objectMapper.writerFor(AuthenticationResponse.class);
+  }
 
   /**
    * Đăng ký một người dùng mới và tạo token.
    */
+  @Transactional
   public ResponseEntity<?> register(RegisterRequest registerRequest) {
+    if (breachedPasswordChecker.isBreached(registerRequest.getPassword())) {
+      throw new BreachedPasswordException(ExceptionMessage.PASSWORD_BREACHED);
+    }
+
+    // Email của người dùng đã lưu trữ vẫn thuộc về họ: dòng sẽ được khôi phục ở lần đăng nhập sau
+    if (userRepository.findByEmail(registerRequest.getEmail()).isPresent()
+            || userArchivalService.isArchived(registerRequest.getEmail())) {
+      throw new EmailAlreadyUsedException(ExceptionMessage.CannotRegisterAccount);
+    }
+
     // Tạo đối tượng User từ thông tin đăng ký
-    var user = User.builder()
-            .firstname(registerRequest.getFirstname())
-            .lastname(registerRequest.getLastname())
-            .email(registerRequest.getEmail())
-            .password(passwordEncoder.encode(registerRequest.getPassword()))
-            .role(registerRequest.getRole())
-            .build();
+    User user = registerRequestMapper.toEntity(registerRequest);
+    user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+    // Người tự đăng ký luôn là USER; chỉ quản trị viên đổi vai trò (RoleController, BulkRoleAssignmentService)
+    user.setRole(Role.USER.name());
 
     // Lưu thông tin người dùng vào cơ sở dữ liệu
     var savedUser = userRepository.save(user);
+    userChangeLogService.record(savedUser, UserChangeType.REGISTER);
+    // Thêm ngay vào filter của node này, không chờ commit: đăng nhập ngay sau đăng ký không bị từ chối nhầm
+    knownEmailFilter.add(savedUser.getEmail());
 
     return ResponseEntity.ok("User register successfully!");
   }
@@ -75,6 +125,14 @@ public class AuthenticationService {
 
       // Lấy ra userDetail
       UserDetail userDetail = (UserDetail) authentication.getPrincipal();
+      if (userDetail.isArchived()) {
+        // Người dùng lâu không đăng nhập: chuyển dòng từ bảng lưu trữ về bảng user rồi mới cấp token
+        User restored = userArchivalService.restore(userDetail.getUser().getId()).orElseThrow(() -> InvalidCredentialsException.INSTANCE);
+        userDetail = new UserDetail(restored, roleRegistry.role(restored.getRole()));
+      }
+      // Ghi thời điểm đăng nhập theo lô, không UPDATE cho mỗi lần đăng nhập
+      userActivityTracker.recordLogin(userDetail.getUser().getId());
+      securityEventPublisher.publish(SecurityEventType.LOGIN_SUCCESS, userDetail.getUser().getId(), userDetail.getUsername(), null);
 
       // Tạo lại token và refresh token cho người dùng đã xác thực
       var jwtToken = jwtService.generateToken(userDetail);
@@ -89,7 +147,8 @@ public class AuthenticationService {
     } catch (AuthenticationException ex) {
       // Xử lý trường hợp xác thực không thành công
       // Ví dụ: log lỗi, trả về thông báo lỗi, ...
-      throw new RuntimeException("Tài khoản mật khẩu sai: " + ex.getMessage());
+      securityEventPublisher.publish(SecurityEventType.LOGIN_FAILURE, null, authenticationRequest.getEmail(), ex.getClass().getSimpleName());
+      throw InvalidCredentialsException.INSTANCE;
     }
   }
 
@@ -103,14 +162,13 @@ public class AuthenticationService {
     // Lấy giá trị từ Header của request
     final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
     final String refreshToken;
-    final String userEmail;
 
     //
     // Kiểm tra xem Header Authorization có tồn tại và có bắt đầu bằng "Bearer " không
     //
     if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-      // Nếu không, thoát khỏi phương thức vì không có token cần xử lý
-      return;
+      // Nếu không, không có token cần xử lý
+      throw InvalidTokenException.MISSING;
     }
 
     //
@@ -119,29 +177,69 @@ public class AuthenticationService {
     // Trích xuất refreshToken từ giá trị của Header
     refreshToken = authHeader.substring(7);
 
+    // Refresh token vừa bị từ chối được gửi lại: từ chối ngay, không parse
+    InvalidTokenException rejected = rejectedTokenCache.lookup(refreshToken);
+    if (rejected != null) {
+      throw rejected;
+    }
+
+    // Các request đồng thời cùng refresh token dùng chung một lần làm mới
+    AuthenticationResponse authResponse = refreshCoalescer.refresh(refreshToken, () -> issueAccessToken(refreshToken, request));
+
+    // Ghi đối tượng AuthenticationResponse vào OutputStream của response
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    responseWriter.writeValue(response.getOutputStream(), authResponse);
+  }
+
+  private AuthenticationResponse issueAccessToken(String refreshToken, HttpServletRequest request) {
+    final String userEmail;
     // Trích xuất userEmail từ refreshToken sử dụng jwtService
-    userEmail = jwtService.extractUsername(refreshToken);
+    try {
+      userEmail = jwtService.extractUsername(refreshToken);
+    } catch (ExpiredJwtException ex) {
+      securityEventPublisher.publish(SecurityEventType.TOKEN_REFRESH_FAILURE, null, null, ex.getClass().getSimpleName());
+      throw reject(refreshToken, InvalidTokenException.EXPIRED);
+    } catch (JwtException | IllegalArgumentException ex) {
+      securityEventPublisher.publish(SecurityEventType.TOKEN_REFRESH_FAILURE, null, null, ex.getClass().getSimpleName());
+      // Sai chữ ký hoặc định dạng: chỉ loại lỗi này được tính vào bộ đếm chặn nguồn
+      sourceBlocklist.recordRejection(request.getRemoteAddr());
+      throw reject(refreshToken, InvalidTokenException.INVALID);
+    }
 
     // Kiểm tra xem userEmail có giá trị và tồn tại trong cơ sở dữ liệu không
-    if (userEmail != null) {
-      UserDetail userDetail = (UserDetail) userDetailService.loadUserByUsername(userEmail);
-
-      // Kiểm tra xem refreshToken có hợp lệ không
-      if (jwtService.isTokenValid(refreshToken, userDetail)) {
-        // Nếu refreshToken hợp lệ, tạo lại accessToken mới
-        var accessToken = jwtService.generateToken(userDetail);
-
-        // Tạo đối tượng AuthenticationResponse với accessToken mới và refreshToken cũ
-        var authResponse = AuthenticationResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .build();
-
-        // Ghi đối tượng AuthenticationResponse vào OutputStream của response
-        new ObjectMapper().writeValue(response.getOutputStream(), authResponse);
-      }
+    if (userEmail == null) {
+      throw reject(refreshToken, InvalidTokenException.INVALID);
+    }
+    UserDetail userDetail;
+    try {
+      userDetail = (UserDetail) userDetailService.loadUserByUsername(userEmail);
+    } catch (UsernameNotFoundException ex) {
+      securityEventPublisher.publish(SecurityEventType.TOKEN_REFRESH_FAILURE, null, userEmail, ex.getClass().getSimpleName());
+      // Không ghi nhớ: người dùng có thể vừa đăng ký trên node khác
+      throw InvalidTokenException.INVALID;
+    }
 
+    // Kiểm tra xem refreshToken có hợp lệ không
+    if (!jwtService.isTokenValid(refreshToken, userDetail)) {
+      securityEventPublisher.publish(SecurityEventType.TOKEN_REFRESH_FAILURE, userDetail.getUser().getId(), userEmail, "InvalidToken");
+      throw reject(refreshToken, InvalidTokenException.INVALID);
     }
+
+    // Nếu refreshToken hợp lệ, tạo lại accessToken mới
+    var accessToken = jwtService.generateToken(userDetail);
+    securityEventPublisher.publish(SecurityEventType.TOKEN_REFRESH, userDetail.getUser().getId(), userEmail, null);
+
+    // Tạo đối tượng AuthenticationResponse với accessToken mới và refreshToken cũ
+    return AuthenticationResponse.builder()
+            .accessToken(accessToken)
+            .refreshToken(refreshToken)
+            .build();
+  }
+
+  // Ghi nhớ refresh token bị từ chối để lần gửi lại không phải parse
+  private InvalidTokenException reject(String refreshToken, InvalidTokenException reason) {
+    rejectedTokenCache.reject(refreshToken, reason);
+    return reason;
   }
 
 
@@ -0,0 +1,166 @@
+package com.security.jwt.security;
+
+import com.security.jwt.entity.PermissionDefinition;
+import com.security.jwt.entity.RoleDefinition;
+import com.security.jwt.enum_constant.Permission;
+import com.security.jwt.enum_constant.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bản biên dịch bất biến của toàn bộ vai trò và quyền: tên quyền trong mảng đánh chỉ số theo id quyền,
+ * vai trò trong mảng theo id vai trò, tập quyền của mỗi vai trò là bitmask, danh sách GrantedAuthority
+ * và bitmask base64 cho token được tính sẵn. Được thay thế nguyên khối khi định nghĩa thay đổi,
+ * nên kiểm tra quyền không khóa và không truy vấn DB.
+ */
+public final class AuthorizationSnapshot {
+
+    /**
+     * Vai trò đã biên dịch.
+     * @param permissionBits bit thứ i bật nếu vai trò có quyền id i (không được sửa)
+     * @param authorities ROLE_&lt;tên&gt; và tên các quyền, dùng làm GrantedAuthority
+     * @param permissionMask bitmask dạng base64url cho claim "p" của token compact
+     */
+    public record CompiledRole(int id, String name, long[] permissionBits,
+                               List<GrantedAuthority> authorities, String permissionMask) {
+
+        public boolean hasPermission(int permissionId) {
+            int word = permissionId >>> 6;
+            return permissionId >= 0 && word < permissionBits.length && (permissionBits[word] & (1L << permissionId)) != 0;
+        }
+    }
+
+    private final long version;
+    private final String[] permissionNames;
+    private final Map<String, Integer> permissionIds;
+    private final CompiledRole[] rolesById;
+    private final Map<String, CompiledRole> rolesByName;
+
+    private AuthorizationSnapshot(long version, String[] permissionNames, Map<String, Integer> permissionIds,
+                                  CompiledRole[] rolesById, Map<String, CompiledRole> rolesByName) {
+        this.version = version;
+        this.permissionNames = permissionNames;
+        this.permissionIds = permissionIds;
+        this.rolesById = rolesById;
+        this.rolesByName = rolesByName;
+    }
+
+    public static AuthorizationSnapshot compile(long version,
+                                                Collection<PermissionDefinition> permissions,
+                                                Collection<RoleDefinition> roles) {
+        int maxPermissionId = permissions.stream().mapToInt(PermissionDefinition::getId).max().orElse(-1);
+        String[] permissionNames = new String[maxPermissionId + 1];
+        Map<String, Integer> permissionIds = new HashMap<>();
+        for (PermissionDefinition permission : permissions) {
+            permissionNames[permission.getId()] = permission.getName();
+            permissionIds.put(permission.getName(), permission.getId());
+        }
+
+        int maxRoleId = roles.stream().mapToInt(RoleDefinition::getId).max().orElse(-1);
+        CompiledRole[] rolesById = new CompiledRole[maxRoleId + 1];
+        Map<String, CompiledRole> rolesByName = new HashMap<>();
+        for (RoleDefinition role : roles) {
+            BitSet bits = new BitSet();
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()));
+            role.getPermissions().stream()
+                    .sorted((a, b) -> Integer.compare(a.getId(), b.getId()))
+                    .forEach(permission -> {
+                        bits.set(permission.getId());
+                        authorities.add(new SimpleGrantedAuthority(permission.getName()));
+                    });
+            CompiledRole compiled = new CompiledRole(role.getId(), role.getName(), bits.toLongArray(),
+                    List.copyOf(authorities), PermissionMask.encode(bits));
+            rolesById[role.getId()] = compiled;
+            rolesByName.put(role.getName(), compiled);
+        }
+        return new AuthorizationSnapshot(version, permissionNames, Map.copyOf(permissionIds),
+                rolesById, Map.copyOf(rolesByName));
+    }
+
+    /**
+     * Snapshot dựng từ các enum có sẵn, dùng trước khi nạp từ DB và để khởi tạo DB trống.
+     * Id quyền là ordinal của {@link Permission}, id vai trò là ordinal + 1 của {@link Role}.
+     */
+    public static AuthorizationSnapshot defaults() {
+        return compile(0, defaultPermissions(), defaultRoles());
+    }
+
+    public static List<PermissionDefinition> defaultPermissions() {
+        List<PermissionDefinition> permissions = new ArrayList<>();
+        for (Permission permission : Permission.values()) {
+            permissions.add(PermissionDefinition.builder()
+                    .id(permission.ordinal())
+                    .name(permission.getPermission())
+                    .build());
+        }
+        return permissions;
+    }
+
+    public static List<RoleDefinition> defaultRoles() {
+        List<PermissionDefinition> permissions = defaultPermissions();
+        List<RoleDefinition> roles = new ArrayList<>();
+        for (Role role : Role.values()) {
+            Set<PermissionDefinition> rolePermissions = new HashSet<>();
+            role.getPermissions().forEach(permission -> rolePermissions.add(permissions.get(permission.ordinal())));
+            roles.add(RoleDefinition.builder()
+                    .id(role.ordinal() + 1)
+                    .name(role.name())
+                    .permissions(rolePermissions)
+                    .build());
+        }
+        return roles;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Vai trò theo tên, null nếu không tồn tại.
+     */
+    public CompiledRole role(String name) {
+        return name == null ? null : rolesByName.get(name);
+    }
+
+    public CompiledRole role(int id) {
+        return id >= 0 && id < rolesById.length ? rolesById[id] : null;
+    }
+
+    public Collection<CompiledRole> roles() {
+        return Collections.unmodifiableCollection(rolesByName.values());
+    }
+
+    public Integer permissionId(String name) {
+        return permissionIds.get(name);
+    }
+
+    public String permissionName(int id) {
+        return id >= 0 && id < permissionNames.length ? permissionNames[id] : null;
+    }
+
+    /**
+     * Giải mã một bitmask quyền thành tên quyền; bit không còn định nghĩa bị bỏ qua.
+     */
+    public Set<String> permissionNames(BitSet bits) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            String name = permissionName(id);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
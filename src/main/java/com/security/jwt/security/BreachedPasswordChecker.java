@@ -0,0 +1,97 @@
+package com.security.jwt.security;
+
+import com.security.jwt.utils.Md4;
+import com.security.jwt.utils.SortedHashFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Kiểm tra mật khẩu mới có nằm trong danh sách mật khẩu bị lộ hay không, hoàn toàn cục bộ (không gọi API ngoài).
+ * Danh sách là {@link SortedHashFile} do SortedHashFileBuilder tạo từ bản dump SHA-1 hoặc NTLM, được memory-map
+ * lúc khởi động; mỗi lần kiểm tra là một lần băm và vài lần đọc trên vùng map (vài micro giây).
+ * Không cấu hình file thì mọi mật khẩu đều được chấp nhận.
+ */
+@Slf4j
+@Component
+public class BreachedPasswordChecker {
+
+    @Value("${application.security.breached-passwords.file:}")
+    private String file;
+
+    private final Counter rejections;
+    private volatile SortedHashFile hashes;
+
+    public BreachedPasswordChecker(MeterRegistry meterRegistry) {
+        this.rejections = Counter.builder("security.password.breached.rejections")
+                .description("Passwords rejected because they appear in the breached-password list")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (file == null || file.isBlank()) {
+            log.info("Breached-password check disabled (application.security.breached-passwords.file not set)");
+            return;
+        }
+        Path path = Path.of(file);
+        if (!Files.isReadable(path)) {
+            throw new IOException("Breached-password file not readable: " + path);
+        }
+        hashes = SortedHashFile.open(path);
+        log.info("Breached-password list mapped: {} {} hashes from {}", hashes.size(), hashes.getHashType(), path);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (hashes != null) {
+            hashes.close();
+        }
+    }
+
+    public boolean isBreached(String password) {
+        SortedHashFile current = hashes;
+        if (current == null || password == null) {
+            return false;
+        }
+        boolean breached = current.contains(hashPrefix(password, current.getHashType()));
+        if (breached) {
+            rejections.increment();
+        }
+        return breached;
+    }
+
+    // 8 byte đầu của SHA-1(UTF-8) hoặc NTLM = MD4(UTF-16LE), cùng cách cắt với SortedHashFileBuilder
+    static long hashPrefix(String password, SortedHashFile.HashType hashType) {
+        byte[] digest = switch (hashType) {
+            case SHA1 -> sha1(password.getBytes(StandardCharsets.UTF_8));
+            case NTLM -> Md4.digest(password.getBytes(StandardCharsets.UTF_16LE));
+        };
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    private static byte[] sha1(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Cho test: dùng file đã có mà không qua cấu hình
+    void use(SortedHashFile hashes) {
+        this.hashes = hashes;
+    }
+}
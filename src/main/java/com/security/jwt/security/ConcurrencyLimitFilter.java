@@ -0,0 +1,95 @@
+package com.security.jwt.security;
+
+import com.security.jwt.exception.OverloadedException;
+import com.security.jwt.utils.GradientLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Giới hạn số request xử lý đồng thời trước khi vào JwtAuthenticationFilter. Khi quá tải, request vượt giới hạn
+ * bị trả 503 ngay thay vì xếp hàng trong Tomcat cho tới khi mọi request đều timeout; độ trễ của request được nhận
+ * vì thế giữ ổn định. Giới hạn tự điều chỉnh theo độ trễ ({@link GradientLimiter}), tách riêng cho /api/v1/auth
+ * (đăng nhập/đăng ký tốn CPU vì BCrypt) và các API đã xác thực, để một nhóm quá tải không chiếm hết chỗ của nhóm kia.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/v1/auth";
+
+    private final boolean enabled;
+    private final GradientLimiter authLimiter;
+    private final GradientLimiter apiLimiter;
+    private final Counter authRejections;
+    private final Counter apiRejections;
+
+    public ConcurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${application.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${application.concurrency-limit.auth.initial-limit:20}") int authInitialLimit,
+            @Value("${application.concurrency-limit.auth.min-limit:4}") int authMinLimit,
+            @Value("${application.concurrency-limit.auth.max-limit:200}") int authMaxLimit,
+            @Value("${application.concurrency-limit.api.initial-limit:50}") int apiInitialLimit,
+            @Value("${application.concurrency-limit.api.min-limit:10}") int apiMinLimit,
+            @Value("${application.concurrency-limit.api.max-limit:1000}") int apiMaxLimit,
+            @Value("${application.concurrency-limit.window-size:50}") int windowSize,
+            @Value("${application.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${application.concurrency-limit.tolerance:1.5}") double tolerance) {
+        this.enabled = enabled;
+        this.authLimiter = new GradientLimiter(authInitialLimit, authMinLimit, authMaxLimit, windowSize, 100, smoothing, tolerance);
+        this.apiLimiter = new GradientLimiter(apiInitialLimit, apiMinLimit, apiMaxLimit, windowSize, 100, smoothing, tolerance);
+        this.authRejections = register(meterRegistry, "auth", authLimiter);
+        this.apiRejections = register(meterRegistry, "api", apiLimiter);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String group, GradientLimiter limiter) {
+        Gauge.builder("http.concurrency.limit", limiter, GradientLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.inflight", limiter, GradientLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .tag("group", group)
+                .register(meterRegistry);
+        return Counter.builder("http.concurrency.rejected")
+                .description("Requests rejected with 503 by the concurrency limiter")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Health check không bao giờ bị từ chối, nếu không node quá tải sẽ bị coi là chết
+        return !enabled || request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean auth = request.getServletPath().startsWith(AUTH_PATH);
+        GradientLimiter limiter = auth ? authLimiter : apiLimiter;
+        if (!limiter.tryAcquire()) {
+            (auth ? authRejections : apiRejections).increment();
+            OverloadedException.INSTANCE.writeTo(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
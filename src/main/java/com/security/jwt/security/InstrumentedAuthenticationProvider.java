@@ -0,0 +1,35 @@
+package com.security.jwt.security;
+
+import com.security.jwt.jfr.AuthEvents;
+import com.security.jwt.jfr.PasswordMatchEvent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * DaoAuthenticationProvider ghi thêm sự kiện JFR {@link PasswordMatchEvent} cho bước so khớp mật khẩu,
+ * thường là bước tốn CPU nhất của một lần đăng nhập (BCrypt).
+ */
+public class InstrumentedAuthenticationProvider extends DaoAuthenticationProvider {
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        PasswordMatchEvent event = new PasswordMatchEvent();
+        event.begin();
+        boolean matched = false;
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            matched = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userHash = AuthEvents.hash(userDetails.getUsername());
+                event.matched = matched;
+                event.commit();
+            }
+        }
+    }
+}
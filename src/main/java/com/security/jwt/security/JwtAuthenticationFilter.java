@@ -7,12 +7,20 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 
+import com.security.jwt.exception.InvalidTokenException;
+import com.security.jwt.exception.SourceBlockedException;
+import com.security.jwt.jfr.AuthEvents;
+import com.security.jwt.jfr.FilterDecisionEvent;
+import com.security.jwt.service.UserActivityTracker;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,6 +31,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
+  private final RejectedTokenCache rejectedTokenCache;
+  private final SourceBlocklist sourceBlocklist;
+  private final UserActivityTracker userActivityTracker;
 
   @Override
   protected void doFilterInternal(
@@ -30,14 +41,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       @NonNull HttpServletResponse response,
       @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+    // Địa chỉ client thật: sau proxy, Tomcat lấy từ X-Forwarded-For (server.forward-headers-strategy: native)
+    final String source = request.getRemoteAddr();
+    // Sự kiện JFR: chỉ đo phần việc của filter, kết thúc trước khi chuyển tiếp sang phần còn lại của chain
+    FilterDecisionEvent event = new FilterDecisionEvent();
+    event.begin();
+
     //
-    // API có chứa /api/v1/auth thì được phép qua filter
+    // API có chứa /api/v1/auth thì được phép qua filter, kể cả nguồn đang bị chặn: client vẫn đăng nhập
+    // hoặc làm mới token để thoát khỏi trạng thái bị từ chối
     //
     if (request.getServletPath().contains("/api/v1/auth")) {
+      commit(event, request, source, "SKIPPED");
       filterChain.doFilter(request, response);
       return;
     }
 
+    // Nguồn đang bị chặn tạm thời do gửi nhiều token sai chữ ký/định dạng
+    if (sourceBlocklist.isBlocked(source)) {
+      SourceBlockedException.INSTANCE.writeTo(response);
+      commit(event, request, source, "BLOCKED");
+      return;
+    }
+
     //
     //  Không được phép
     //
@@ -47,24 +73,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     final String userEmail;
 
     // Chuoi authorization: bắt đầu bằng bearer, tiếp theo là chuoi tocken
-    if (authHeader == null || !authHeader.startsWith("Bearer")) {
+    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
       // Nếu authorization không hợp lệ thì chỉ cho đến permitAll
+      commit(event, request, source, "ANONYMOUS");
       filterChain.doFilter(request, response);
       return;
     }
 
     // Xử lý token
     jwt = authHeader.substring(7); // Lấy ra chuỗi token
-    userEmail = jwtService.extractUsername(jwt); // claim định danh đảm bảo tính duy nhất
-                      // => tư đây có thể truy cập vào db để lấy ra các thông tin khác
 
-    // Kiểm tra xem đúng email ko và có ai đang đăng nhập ko
-    if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      // Lấy ra được UserDetails thông qua userEmail
-      UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+    // Token vừa bị từ chối được gửi lại: trả 401 ngay, không parse và không kiểm tra chữ ký
+    InvalidTokenException rejected = rejectedTokenCache.lookup(jwt);
+    if (rejected != null) {
+      rejected.writeTo(response);
+      commit(event, request, source, "REPLAYED");
+      return;
+    }
+
+    try {
+      userEmail = jwtService.extractUsername(jwt); // claim định danh đảm bảo tính duy nhất
+                        // => tư đây có thể truy cập vào db để lấy ra các thông tin khác
+
+      // Kiểm tra xem đúng email ko và có ai đang đăng nhập ko
+      if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Lấy ra được UserDetails thông qua userEmail
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+
+        // Token bị thu hồi (epoch cũ)
+        if (!jwtService.isTokenValid(jwt, userDetails)) {
+          reject(jwt, InvalidTokenException.INVALID, response);
+          commit(event, request, source, "REVOKED");
+          return;
+        }
 
-      // Token đã ok
-      if (jwtService.isTokenValid(jwt, userDetails)) {
         // Tạo một đối tượng UsernamePasswordAuthenticationToken để đại diện cho thông tin xác thực người dùng
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                 userDetails,                  // Người dùng chi tiết (thường là UserDetails)
@@ -78,12 +120,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Security
         // Đặt thông tin xác thực vào bộ lưu trữ SecurityContextHolder để có thể sử dụng trong quá trình xử lý yêu cầu
         SecurityContextHolder.getContext().setAuthentication(authToken);
+        // Chỉ ghi vào map trong bộ nhớ; DB được cập nhật theo lô
+        if (userDetails instanceof UserDetail userDetail) {
+          userActivityTracker.recordSeen(userDetail.getUser().getId());
+        }
       }
+    } catch (ExpiredJwtException ex) {
+      // Trả 401 với body dựng sẵn thay vì để ngoại lệ (kèm stack trace) lan ra container
+      reject(jwt, InvalidTokenException.EXPIRED, response);
+      commit(event, request, source, "EXPIRED");
+      return;
+    } catch (JwtException | IllegalArgumentException ex) {
+      // Sai chữ ký hoặc định dạng: chỉ loại lỗi này được tính vào bộ đếm chặn nguồn
+      sourceBlocklist.recordRejection(source);
+      reject(jwt, InvalidTokenException.INVALID, response);
+      commit(event, request, source, "INVALID");
+      return;
+    } catch (UsernameNotFoundException ex) {
+      // Không ghi nhớ: người dùng có thể vừa đăng ký trên node khác hoặc đang được khôi phục
+      InvalidTokenException.INVALID.writeTo(response);
+      commit(event, request, source, "USER_NOT_FOUND");
+      return;
     }
 
     //
     // Hết filter đi đến controller
     //
+    commit(event, request, source, SecurityContextHolder.getContext().getAuthentication() != null ? "AUTHENTICATED" : "ANONYMOUS");
     filterChain.doFilter(request, response);
   }
+
+  private static void commit(FilterDecisionEvent event, HttpServletRequest request, String source, String decision) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.path = request.getServletPath();
+      event.sourceHash = AuthEvents.hash(source);
+      event.decision = decision;
+      event.commit();
+    }
+  }
+
+  // Ghi nhớ token bị từ chối để lần gửi lại không phải parse; token hết hạn/bị thu hồi của client bình thường
+  // không bị tính vào bộ đếm chặn nguồn
+  private void reject(String jwt, InvalidTokenException reason, HttpServletResponse response) throws IOException {
+    rejectedTokenCache.reject(jwt, reason);
+    reason.writeTo(response);
+  }
 }
@@ -1,24 +1,60 @@
 package com.security.jwt.security;
 
+import com.security.jwt.entity.User;
+import com.security.jwt.jfr.AuthEvents;
+import com.security.jwt.jfr.TokenIssuanceEvent;
+import com.security.jwt.jfr.TokenVerificationEvent;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+  // Claim chứa id người dùng và token epoch tại thời điểm cấp token
+  public static final String USER_ID_CLAIM = "uid";
+  public static final String TOKEN_EPOCH_CLAIM = "epoch";
+
+  // Claim rút gọn của profile compact: id người dùng, epoch (bỏ qua khi bằng 0) và bitmask quyền
+  public static final String COMPACT_USER_ID_CLAIM = "u";
+  public static final String COMPACT_TOKEN_EPOCH_CLAIM = "e";
+  public static final String COMPACT_PERMISSIONS_CLAIM = "p";
+
+  /**
+   * STANDARD: định dạng token như trước (claim đầy đủ tên, có iat).
+   * COMPACT: claim tên ngắn, quyền mã hóa bằng {@link PermissionMask}, bỏ iat.
+   * Cả hai định dạng đều được chấp nhận khi kiểm tra token, nên có thể đổi profile mà không làm mất phiên.
+   */
+  public enum TokenProfile {
+    STANDARD,
+    COMPACT
+  }
+
+  private final TokenEpochRegistry tokenEpochRegistry;
+  private final RoleRegistry roleRegistry;
+
+  @Value("${application.security.jwt.profile:standard}")
+  private TokenProfile profile;
+
   @Value("${application.security.jwt.secret-key}")
   private String secretKey;
 
@@ -28,6 +64,9 @@ public class JwtService {
   @Value("${application.security.jwt.refresh-token.expiration}")
   private long refreshExpiration;
 
+  private volatile Key signInKey;
+  private volatile JwtParser parser;
+
   // Trích xuất tên người dùng từ token JWT
   public String extractUsername(String token) {
     return extractClaim(token, Claims::getSubject);
@@ -49,59 +88,167 @@ public class JwtService {
           Map<String, Object> extraClaims,
           UserDetails userDetails
   ) {
-    return buildToken(extraClaims, userDetails, jwtExpiration);
+    return buildToken(extraClaims, userDetails, jwtExpiration, true);
   }
 
   // Tạo một refresh token cho chi tiết người dùng được cung cấp
   public String generateRefreshToken(UserDetails userDetails) {
-    return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+    return buildToken(new HashMap<>(), userDetails, refreshExpiration, false);
+  }
+
+  // Quyền mang trong access token profile compact; token profile standard không mang quyền
+  public Set<String> extractPermissions(String token) {
+    String mask = extractClaim(token, claims -> claims.get(COMPACT_PERMISSIONS_CLAIM, String.class));
+    return mask != null ? roleRegistry.current().permissionNames(PermissionMask.decode(mask)) : Collections.emptySet();
   }
 
   // Xây dựng một token JWT với các claim, chi tiết người dùng và thời gian hết hạn được chỉ định
   private String buildToken(
+          Map<String, Object> extraClaims,
+          UserDetails userDetails,
+          long expiration,
+          boolean accessToken
+  ) {
+    TokenIssuanceEvent event = new TokenIssuanceEvent();
+    event.begin();
+    String token = profile == TokenProfile.COMPACT
+            ? buildCompactToken(extraClaims, userDetails, expiration, accessToken)
+            : buildStandardToken(extraClaims, userDetails, expiration);
+    event.end();
+    if (event.shouldCommit()) {
+      event.userHash = AuthEvents.hash(userDetails.getUsername());
+      event.tokenType = accessToken ? "ACCESS" : "REFRESH";
+      event.profile = profile.name();
+      event.tokenLength = token.length();
+      event.commit();
+    }
+    return token;
+  }
+
+  private String buildStandardToken(
           Map<String, Object> extraClaims,
           UserDetails userDetails,
           long expiration
   ) {
+    Map<String, Object> claims = new HashMap<>(extraClaims);
+    if (userDetails instanceof UserDetail userDetail) {
+      claims.put(USER_ID_CLAIM, userDetail.getUser().getId());
+      claims.put(TOKEN_EPOCH_CLAIM, userDetail.getUser().getTokenEpoch());
+    }
     return Jwts
             .builder()
-            .setClaims(extraClaims)
+            .setClaims(claims)
             .setSubject(userDetails.getUsername())
             .setIssuedAt(new Date(System.currentTimeMillis()))
             .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(getSignInKey(), io.jsonwebtoken.SignatureAlgorithm.HS256)
+            .signWith(getSignInKey(), SignatureAlgorithm.HS256)
             .compact();
   }
 
-  // Kiểm tra xem một token JWT cụ thể có hợp lệ cho chi tiết người dùng được cung cấp không
-  public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+  // Header chỉ có alg (không typ), payload không có iat và bỏ các claim mang giá trị mặc định
+  private String buildCompactToken(
+          Map<String, Object> extraClaims,
+          UserDetails userDetails,
+          long expiration,
+          boolean accessToken
+  ) {
+    JwtBuilder builder = Jwts.builder().setClaims(new HashMap<>(extraClaims));
+    if (userDetails instanceof UserDetail userDetail) {
+      User user = userDetail.getUser();
+      builder.claim(COMPACT_USER_ID_CLAIM, user.getId());
+      if (user.getTokenEpoch() != 0) {
+        builder.claim(COMPACT_TOKEN_EPOCH_CLAIM, user.getTokenEpoch());
+      }
+      AuthorizationSnapshot.CompiledRole role = userDetail.getCompiledRole() != null
+              ? userDetail.getCompiledRole()
+              : roleRegistry.role(user.getRole());
+      // Mask đã tính sẵn trong snapshot; quyết định phân quyền vẫn dựa trên snapshot hiện hành, không dựa trên claim này
+      if (accessToken && role != null && !role.permissionMask().isEmpty()) {
+        builder.claim(COMPACT_PERMISSIONS_CLAIM, role.permissionMask());
+      }
+    }
+    return builder
+            .setSubject(userDetails.getUsername())
+            .setExpiration(new Date(System.currentTimeMillis() + expiration))
+            .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+            .compact();
   }
 
-  // Kiểm tra xem một token JWT cụ thể đã hết hạn chưa
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  // Kiểm tra xem một token JWT cụ thể có hợp lệ cho chi tiết người dùng được cung cấp không
+  public boolean isTokenValid(String token, UserDetails userDetails) {
+    TokenVerificationEvent event = new TokenVerificationEvent();
+    event.begin();
+    String outcome = "INVALID";
+    try {
+      final Claims claims = extractAllClaims(token);
+      final String username = claims.getSubject();
+      if (!username.equals(userDetails.getUsername())) {
+        outcome = "SUBJECT_MISMATCH";
+      } else if (claims.getExpiration().before(new Date())) {
+        outcome = "EXPIRED";
+      } else if (!isTokenEpochCurrent(claims, userDetails)) {
+        outcome = "REVOKED";
+      } else if (userDetails instanceof UserDetail userDetail && userDetail.isArchived()) {
+        // Người dùng đã lưu trữ chỉ được khôi phục bằng đăng nhập, không bằng token cũ
+        outcome = "ARCHIVED";
+      } else {
+        outcome = "VALID";
+      }
+      return outcome.equals("VALID");
+    } catch (ExpiredJwtException e) {
+      outcome = "EXPIRED";
+      throw e;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.tokenHash = AuthEvents.hash(token);
+        event.userHash = AuthEvents.hash(userDetails.getUsername());
+        event.outcome = outcome;
+        event.commit();
+      }
+    }
   }
 
-  // Trích xuất ngày hết hạn từ token JWT
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  // Token bị thu hồi khi epoch của nó nhỏ hơn epoch hiện tại của người dùng (tra trong bộ nhớ, không truy cập DB)
+  private boolean isTokenEpochCurrent(Claims claims, UserDetails userDetails) {
+    if (!(userDetails instanceof UserDetail userDetail) || userDetail.getUser().getId() == null) {
+      return true;
+    }
+    Integer tokenEpoch = claims.get(TOKEN_EPOCH_CLAIM, Integer.class);
+    if (tokenEpoch == null) {
+      tokenEpoch = claims.get(COMPACT_TOKEN_EPOCH_CLAIM, Integer.class);
+    }
+    int epoch = tokenEpoch != null ? tokenEpoch : 0;
+    return epoch >= tokenEpochRegistry.currentEpoch(userDetail.getUser().getId());
   }
 
   // Trích xuất tất cả các claim từ token JWT
   private Claims extractAllClaims(String token) {
-    return Jwts
-            .parserBuilder()
-            .setSigningKey(getSignInKey())
-            .build()
+    return getParser()
             .parseClaimsJws(token)
             .getBody();
   }
 
-  // Lấy khóa ký được sử dụng để ký JWT
+  // JwtParser an toàn luồng; tạo lại mỗi lần kéo theo một ObjectMapper mới nên chỉ dựng một lần
+  private JwtParser getParser() {
+    JwtParser jwtParser = parser;
+    if (jwtParser == null) {
+      jwtParser = Jwts.parserBuilder()
+              .setSigningKey(getSignInKey())
+              .build();
+      parser = jwtParser;
+    }
+    return jwtParser;
+  }
+
+  // Lấy khóa ký được sử dụng để ký JWT (giải mã một lần rồi giữ lại)
   private Key getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+    Key key = signInKey;
+    if (key == null) {
+      byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+      key = Keys.hmacShaKeyFor(keyBytes);
+      signInKey = key;
+    }
+    return key;
   }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.security.jwt.security;
+
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserArchiveRepository;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter chứa email (đã chuẩn hóa) của mọi người dùng đã đăng ký. Email chắc chắn không tồn tại
+ * bị từ chối ngay mà không truy vấn DB, giúp tấn công credential stuffing bằng email ngẫu nhiên gần như không tốn gì.
+ * Filter được dựng lại lúc khởi động và định kỳ bằng cách đọc dạng stream bảng user (loại bỏ email đã xóa,
+ * nới dung lượng khi số người dùng tăng), và được bổ sung khi có đăng ký mới trên node này hoặc node khác
+ * (qua nhật ký thay đổi).
+ * Đăng ký trên node này thêm email vào filter ngay trong request đăng ký ({@link #add(String)}), nên đăng nhập
+ * ngay sau đó trên cùng node không bị từ chối. Đăng ký trên node khác chỉ có trong filter sau khi poller phát lại
+ * nhật ký (tối đa một chu kỳ poll); trong khoảng đó đăng nhập trên node này bị từ chối như sai thông tin.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    private final UserRepository userRepository;
+    private final UserArchiveRepository userArchiveRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter rejections;
+    private final AtomicLong size = new AtomicLong();
+
+    @Value("${application.security.email-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${application.security.email-filter.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // null cho tới khi dựng xong lần đầu: lúc đó mọi email đều được coi là có thể tồn tại
+    private volatile BloomFilter filter;
+    // Filter đang được dựng lại; email đăng ký trong lúc dựng được thêm vào cả hai
+    private volatile BloomFilter building;
+
+    public KnownEmailFilter(UserRepository userRepository, UserArchiveRepository userArchiveRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userArchiveRepository = userArchiveRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rejections = Counter.builder("security.email.filter.rejections")
+                .description("Lookups rejected by the known-email filter without a database query")
+                .register(meterRegistry);
+        Gauge.builder("security.email.filter.size", size, AtomicLong::get)
+                .description("Emails loaded into the known-email filter")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.email-filter.rebuild-interval:21600000}",
+            initialDelayString = "${application.security.email-filter.rebuild-interval:21600000}")
+    public synchronized void rebuild() {
+        long count = userRepository.count() + userArchiveRepository.count();
+        // Dư gấp đôi để tỷ lệ dương tính giả vẫn giữ được khi số người dùng tăng giữa hai lần dựng lại
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+        building = next;
+        try {
+            long loaded = readOnlyTransaction.execute(status -> {
+                // Email trong bảng lưu trữ vẫn đăng nhập được (và được khôi phục) nên cũng phải có trong filter
+                try (Stream<String> emails = Stream.concat(userRepository.streamAllEmails(), userArchiveRepository.streamAllEmails())) {
+                    return emails.peek(email -> next.put(normalize(email))).count();
+                }
+            });
+            filter = next;
+            size.set(loaded);
+            log.info("Known-email filter rebuilt with {} emails ({} bits)", loaded, next.bitSize());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * @return false nếu email chắc chắn chưa được đăng ký.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return true;
+        }
+        if (current.mightContain(normalize(email))) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        String normalized = normalize(email);
+        // Đọc building trước filter: nếu lần dựng lại vừa xong thì filter chắc chắn đã là bản mới
+        BloomFilter pending = building;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(normalized);
+        }
+        if (pending != null) {
+            pending.put(normalized);
+        }
+        size.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.changeType() == UserChangeType.REGISTER && event.email() != null) {
+            add(event.email());
+        }
+    }
+
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.security.jwt.security;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Mã hóa tập quyền (bit thứ i ứng với quyền có id i) thành bitmask base64url, little-endian theo byte.
+ * 8 quyền mặc định chỉ tốn 2 ký tự thay vì liệt kê từng chuỗi quyền trong token.
+ * Id quyền không bao giờ được dùng lại để các token đã phát hành vẫn giải mã đúng.
+ */
+public final class PermissionMask {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PermissionMask() {
+    }
+
+    public static String encode(BitSet permissions) {
+        return ENCODER.encodeToString(permissions.toByteArray());
+    }
+
+    public static BitSet decode(String mask) {
+        return BitSet.valueOf(DECODER.decode(mask));
+    }
+}
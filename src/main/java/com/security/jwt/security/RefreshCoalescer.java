@@ -0,0 +1,62 @@
+package com.security.jwt.security;
+
+import com.security.jwt.dto.response.AuthenticationResponse;
+import com.security.jwt.utils.CacheRegion;
+import com.security.jwt.utils.MyCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * Gộp các lần làm mới token đồng thời với cùng một refresh token (client mobile thường gửi song song nhiều
+ * request khi access token hết hạn). Khóa là SHA-256 của refresh token; lần gọi đầu tiên tải người dùng và ký
+ * access token mới, các lần gọi cùng lúc chờ và dùng chung kết quả. Kết quả được giữ thêm trong thời gian
+ * expire-after-write của region (vài giây) cho các request đến muộn. Lỗi không được cache: lần gọi sau tự
+ * kiểm tra lại, và thường bị {@link RejectedTokenCache} chặn ngay.
+ */
+@Component
+public class RefreshCoalescer {
+
+    public static final String REGION = "refresh-coalescing";
+
+    private final CacheRegion<String, AuthenticationResponse> responses;
+    private final Counter coalesced;
+
+    public RefreshCoalescer(MyCache myCache, MeterRegistry meterRegistry) {
+        this.responses = myCache.region(REGION);
+        this.coalesced = Counter.builder("security.refresh.coalesced")
+                .description("Refresh requests answered with a response issued for a concurrent request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param issuer Tạo response mới; chỉ được gọi nếu chưa có lần làm mới nào cho token này đang chạy hoặc vừa xong.
+     */
+    public AuthenticationResponse refresh(String refreshToken, Supplier<AuthenticationResponse> issuer) {
+        boolean[] issued = new boolean[1];
+        AuthenticationResponse response = responses.get(digest(refreshToken), key -> {
+            issued[0] = true;
+            return issuer.get();
+        });
+        if (!issued[0]) {
+            coalesced.increment();
+        }
+        return response;
+    }
+
+    // Hash mật mã chứ không phải hash 64 bit: trùng khóa sẽ trả token của người dùng khác
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.security.jwt.security;
+
+import com.security.jwt.exception.InvalidTokenException;
+import com.security.jwt.utils.StringHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ghi nhớ dấu vân tay (hash 64 bit có seed ngẫu nhiên) của các token vừa bị từ chối, để lần gửi lại
+ * được trả 401 ngay mà không cần parse và kiểm tra chữ ký.
+ * Bảng direct-mapped kích thước cố định trên mảng long nguyên thủy: token mới ghi đè token cũ cùng ô,
+ * nên bộ nhớ không đổi dù cuộc tấn công lớn đến đâu. Mỗi ô gồm [fingerprint, hạn dùng << 1 | cờ hết hạn];
+ * ghi đồng thời có thể làm lệch cặp giá trị, khi đó chỉ dẫn tới trượt cache chứ không từ chối nhầm token khác.
+ */
+@Component
+public class RejectedTokenCache {
+
+    private static final long EMPTY = 0;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long seed = new SecureRandom().nextLong();
+    private final long ttlMillis;
+    private final Counter hits;
+
+    public RejectedTokenCache(
+            @Value("${application.security.token-rejection.cache-size:65536}") int cacheSize,
+            @Value("${application.security.token-rejection.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        int capacity = Integer.highestOneBit(Math.max(cacheSize, 2) - 1) << 1;
+        this.slots = new AtomicLongArray(capacity * 2);
+        this.mask = capacity - 1;
+        this.ttlMillis = ttl.toMillis();
+        this.hits = Counter.builder("security.rejected.token.cache.hits")
+                .description("Replayed tokens rejected without signature verification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Lý do từ chối đã ghi nhớ, hoặc null nếu token chưa bị từ chối gần đây.
+     */
+    public InvalidTokenException lookup(String token) {
+        long fingerprint = fingerprint(token);
+        int slot = slot(fingerprint);
+        if (slots.get(slot) != fingerprint) {
+            return null;
+        }
+        long value = slots.get(slot + 1);
+        if ((value >>> 1) < System.currentTimeMillis()) {
+            return null;
+        }
+        hits.increment();
+        return (value & 1) != 0 ? InvalidTokenException.EXPIRED : InvalidTokenException.INVALID;
+    }
+
+    public void reject(String token, InvalidTokenException reason) {
+        long fingerprint = fingerprint(token);
+        int slot = slot(fingerprint);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        slots.set(slot, fingerprint);
+        slots.set(slot + 1, expiresAt << 1 | (reason == InvalidTokenException.EXPIRED ? 1 : 0));
+    }
+
+    private long fingerprint(String token) {
+        long fingerprint = StringHash.hash64(token, seed);
+        return fingerprint == EMPTY ? 1 : fingerprint;
+    }
+
+    private int slot(long fingerprint) {
+        return ((int) (fingerprint ^ (fingerprint >>> 32)) & mask) << 1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.security.jwt.security;
+
+import com.security.jwt.datasource.ReplicaRoutingContext;
+import com.security.jwt.entity.PermissionDefinition;
+import com.security.jwt.entity.RoleDefinition;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.PermissionDefinitionRepository;
+import com.security.jwt.repository.RoleDefinitionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Giữ {@link AuthorizationSnapshot} hiện hành. Khi định nghĩa vai trò/quyền thay đổi (trên node này,
+ * hoặc node khác qua nhật ký thay đổi ROLES_CHANGED) thì đọc lại từ DB, biên dịch snapshot mới rồi thay
+ * nguyên khối; luồng đang kiểm tra quyền vẫn dùng snapshot cũ cho tới khi xong, không cần khóa.
+ */
+@Slf4j
+@Component
+public class RoleRegistry {
+
+    private final RoleDefinitionRepository roleRepository;
+    private final PermissionDefinitionRepository permissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<AuthorizationSnapshot> snapshot = new AtomicReference<>(AuthorizationSnapshot.defaults());
+    private final AtomicLong versions = new AtomicLong();
+
+    public RoleRegistry(RoleDefinitionRepository roleRepository,
+                        PermissionDefinitionRepository permissionRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        seedDefaults();
+        reload();
+    }
+
+    public AuthorizationSnapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * @return Vai trò đã biên dịch theo tên, null nếu không tồn tại.
+     */
+    public AuthorizationSnapshot.CompiledRole role(String name) {
+        return snapshot.get().role(name);
+    }
+
+    public void reload() {
+        // Đọc trên primary: sự kiện thay đổi đến ngay sau commit, replica có thể chưa kịp sao chép
+        AuthorizationSnapshot next = ReplicaRoutingContext.onPrimary(() -> transactionTemplate.execute(status ->
+                AuthorizationSnapshot.compile(versions.incrementAndGet(),
+                        permissionRepository.findAll(),
+                        roleRepository.findAllBy())));
+        snapshot.set(next);
+        log.info("Authorization snapshot v{} loaded with {} roles", next.getVersion(), next.roles().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.changeType() == UserChangeType.ROLES_CHANGED) {
+            reload();
+        }
+    }
+
+    // DB trống: ghi các vai trò/quyền có sẵn trong enum. Nhiều node cùng khởi tạo thì node thua bỏ qua
+    private void seedDefaults() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (permissionRepository.count() == 0) {
+                    permissionRepository.saveAll(AuthorizationSnapshot.defaultPermissions());
+                }
+                if (roleRepository.count() == 0) {
+                    Map<String, PermissionDefinition> permissions = permissionRepository.findAll().stream()
+                            .collect(Collectors.toMap(PermissionDefinition::getName, Function.identity()));
+                    AuthorizationSnapshot.defaultRoles().forEach(role -> roleRepository.save(RoleDefinition.builder()
+                            .name(role.getName())
+                            .permissions(role.getPermissions().stream()
+                                    .map(permission -> permissions.get(permission.getName()))
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toSet()))
+                            .build()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Default roles already seeded by another node");
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.security.jwt.security;
 
+import com.security.jwt.exception.ForbiddenException;
+import com.security.jwt.exception.InvalidTokenException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -36,7 +39,11 @@ public class SecurityConfiguration {
     // Danh sách các URL được phép truy cập mà không cần xác thực
     private static final String[] WHITE_LIST_URL =
             {"/api/v1/auth/**",
-            "/v2/api-docs",
+            "/openapi.json"};
+
+    // Chỉ mở khi springdoc được bật (profile dev), production dùng /openapi.json tạo sẵn lúc build
+    private static final String[] API_DOCS_URL =
+            {"/v2/api-docs",
             "/v3/api-docs",
             "/v3/api-docs/**",
             "/swagger-resources",
@@ -46,7 +53,12 @@ public class SecurityConfiguration {
             "/swagger-ui/**",
             "/webjars/**",
             "/swagger-ui.html"};
+
+    @Value("${springdoc.api-docs.enabled:true}")
+    private boolean apiDocsEnabled;
+
     private final JwtAuthenticationFilter jwtAuthFilter;  // Filter xác thực JWT
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;  // Giới hạn request đồng thời, trả 503 khi quá tải
     private final AuthenticationProvider authenticationProvider;  // Đối tượng xử lý xác thực
 
     /**
@@ -58,23 +70,32 @@ public class SecurityConfiguration {
      */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        if (apiDocsEnabled) {
+            http.authorizeHttpRequests(req -> req.requestMatchers(API_DOCS_URL).permitAll());
+        }
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(req ->
                         req.requestMatchers(WHITE_LIST_URL)
                                 .permitAll()
+                                .requestMatchers(GET, "/api/v1/management/**").hasAnyAuthority(ADMIN_READ.getPermission(), MANAGER_READ.getPermission())
+                                .requestMatchers(POST, "/api/v1/management/**").hasAnyAuthority(ADMIN_CREATE.getPermission(), MANAGER_CREATE.getPermission())
+                                .requestMatchers(PUT, "/api/v1/management/**").hasAnyAuthority(ADMIN_UPDATE.getPermission(), MANAGER_UPDATE.getPermission())
+                                .requestMatchers(DELETE, "/api/v1/management/**").hasAnyAuthority(ADMIN_DELETE.getPermission(), MANAGER_DELETE.getPermission())
+                                // Matcher đầu tiên khớp sẽ quyết định: các phương thức còn lại (PATCH, HEAD...) chỉ cần vai trò
                                 .requestMatchers("/api/v1/management/**").hasAnyRole(ADMIN.name(), MANAGER.name())
-                                .requestMatchers(GET, "/api/v1/management/**").hasAnyAuthority(ADMIN_READ.name(), MANAGER_READ.name())
-                                .requestMatchers(POST, "/api/v1/management/**").hasAnyAuthority(ADMIN_CREATE.name(), MANAGER_CREATE.name())
-                                .requestMatchers(PUT, "/api/v1/management/**").hasAnyAuthority(ADMIN_UPDATE.name(), MANAGER_UPDATE.name())
-                                .requestMatchers(DELETE, "/api/v1/management/**").hasAnyAuthority(ADMIN_DELETE.name(), MANAGER_DELETE.name())
                                 .anyRequest()
                                 .authenticated()
 
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
+                // 401/403 ghi body dựng sẵn, không tạo ErrorResponse mới cho mỗi request bị từ chối
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint((request, response, ex) -> InvalidTokenException.MISSING.writeTo(response))
+                        .accessDeniedHandler((request, response, ex) -> ForbiddenException.INSTANCE.writeTo(response)))
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
         ;
 
         return http.build();
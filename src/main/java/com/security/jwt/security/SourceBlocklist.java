@@ -0,0 +1,56 @@
+package com.security.jwt.security;
+
+import com.security.jwt.utils.CacheRegion;
+import com.security.jwt.utils.MyCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Đếm số token bị từ chối theo địa chỉ nguồn trong một cửa sổ thời gian và chặn tạm thời nguồn vượt ngưỡng.
+ * Chỉ token sai chữ ký/định dạng được đếm (token hết hạn hoặc bị thu hồi là của client bình thường), và nguồn bị
+ * chặn vẫn gọi được /api/v1/auth để đăng nhập lại. Địa chỉ nguồn là IP client thật do Tomcat lấy từ
+ * X-Forwarded-For của proxy nội bộ (server.forward-headers-strategy: native).
+ * Cửa sổ đếm và thời gian chặn là expire-after-write của hai region cache tương ứng; cả hai region đều
+ * giới hạn kích thước nên bộ nhớ cố định kể cả khi tấn công từ rất nhiều địa chỉ.
+ */
+@Slf4j
+@Component
+public class SourceBlocklist {
+
+    public static final String REJECTIONS_REGION = "token-rejections-by-source";
+    public static final String BLOCKED_REGION = "blocked-sources";
+
+    private final CacheRegion<String, AtomicInteger> rejections;
+    private final CacheRegion<String, Boolean> blocked;
+    private final Counter blocks;
+
+    @Value("${application.security.token-rejection.source-threshold:50}")
+    private int threshold;
+
+    public SourceBlocklist(MyCache myCache, MeterRegistry meterRegistry) {
+        this.rejections = myCache.region(REJECTIONS_REGION);
+        this.blocked = myCache.region(BLOCKED_REGION);
+        this.blocks = Counter.builder("security.source.blocks")
+                .description("Sources temporarily blocked for sending invalid tokens")
+                .register(meterRegistry);
+    }
+
+    public boolean isBlocked(String source) {
+        return blocked.get(source) != null;
+    }
+
+    public void recordRejection(String source) {
+        AtomicInteger count = rejections.get(source, key -> new AtomicInteger());
+        if (count.incrementAndGet() == threshold) {
+            blocked.put(source, Boolean.TRUE);
+            rejections.evict(source);
+            blocks.increment();
+            log.warn("Blocking {} after {} rejected tokens", source, threshold);
+        }
+    }
+}
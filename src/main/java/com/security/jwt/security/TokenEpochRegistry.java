@@ -0,0 +1,113 @@
+package com.security.jwt.security;
+
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangeBatchEvent;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.utils.IntIntHashMap;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lưu token epoch hiện tại của mỗi người dùng trong bộ nhớ (user id -> epoch).
+ * Token mang epoch nhỏ hơn epoch hiện tại bị coi là đã thu hồi, nên kiểm tra mỗi request
+ * chỉ là một lần tra bảng băm, không truy cập DB. Người dùng có epoch 0 không cần lưu.
+ * Bảng đã công bố không bao giờ bị sửa: mỗi lần cập nhật chép bảng, ghi vào bản chép rồi công bố qua tham chiếu
+ * volatile (copy-on-write), nên luồng đọc không khóa và không thấy bảng đang rehash. Epoch chỉ đổi khi đăng xuất
+ * mọi thiết bị, đổi mật khẩu hoặc đổi quyền, hiếm hơn nhiều so với số lần đọc.
+ */
+@Slf4j
+@Component
+public class TokenEpochRegistry {
+
+    // Thay đổi làm tăng token epoch
+    private static final Set<UserChangeType> EPOCH_CHANGES = EnumSet.of(UserChangeType.PASSWORD_CHANGED,
+            UserChangeType.TOKENS_REVOKED, UserChangeType.ROLE_CHANGED);
+
+    private final UserRepository userRepository;
+    private volatile IntIntHashMap epochs = new IntIntHashMap(1024);
+
+    public TokenEpochRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        List<Object[]> rows = userRepository.findNonZeroTokenEpochs();
+        synchronized (this) {
+            IntIntHashMap next = new IntIntHashMap(epochs);
+            for (Object[] row : rows) {
+                putIfNewer(next, (Integer) row[0], (Integer) row[1]);
+            }
+            epochs = next;
+        }
+        log.debug("Loaded {} token epochs", rows.size());
+    }
+
+    public int currentEpoch(int userId) {
+        return epochs.get(userId, 0);
+    }
+
+    /**
+     * Cập nhật epoch của người dùng, epoch chỉ tăng không giảm.
+     */
+    public synchronized void update(int userId, int epoch) {
+        if (epoch > epochs.get(userId, 0)) {
+            IntIntHashMap next = new IntIntHashMap(epochs);
+            next.put(userId, epoch);
+            epochs = next;
+        }
+    }
+
+    private static void putIfNewer(IntIntHashMap table, int userId, int epoch) {
+        if (epoch > table.get(userId, 0)) {
+            table.put(userId, epoch);
+        }
+    }
+
+    /**
+     * Áp dụng epoch mới của cả lô thay đổi (trên node này hoặc node khác qua nhật ký thay đổi) bằng một lần chép
+     * bảng. Chỉ dòng nhật ký cũ không mang epoch của thay đổi có tăng epoch mới phải đọc lại từ DB.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanges(UserChangeBatchEvent batch) {
+        int[] userIds = new int[batch.changes().size()];
+        int[] newEpochs = new int[userIds.length];
+        int count = 0;
+        for (UserChangedEvent event : batch.changes()) {
+            if (event.userId() == null) {
+                continue;
+            }
+            Integer epoch = event.tokenEpoch();
+            if (epoch == null && EPOCH_CHANGES.contains(event.changeType())) {
+                epoch = userRepository.findTokenEpochById(event.userId()).orElse(null);
+            }
+            if (epoch != null) {
+                userIds[count] = event.userId();
+                newEpochs[count++] = epoch;
+            }
+        }
+        updateAll(userIds, newEpochs, count);
+    }
+
+    private synchronized void updateAll(int[] userIds, int[] newEpochs, int count) {
+        IntIntHashMap next = null;
+        for (int i = 0; i < count; i++) {
+            if (newEpochs[i] > (next != null ? next : epochs).get(userIds[i], 0)) {
+                if (next == null) {
+                    next = new IntIntHashMap(epochs);
+                }
+                next.put(userIds[i], newEpochs[i]);
+            }
+        }
+        if (next != null) {
+            epochs = next;
+        }
+    }
+}
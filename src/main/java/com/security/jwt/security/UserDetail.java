@@ -19,12 +19,28 @@ import java.util.List;
 @NoArgsConstructor
 public class UserDetail implements UserDetails {
     private User user;
+    // Vai trò lấy từ snapshot phân quyền lúc nạp người dùng; null thì chỉ có ROLE_<tên vai trò>
+    private AuthorizationSnapshot.CompiledRole compiledRole;
+    // Nạp từ bảng user_archive: chỉ dùng để đăng nhập (rồi khôi phục), token của người dùng này không hợp lệ
+    private boolean archived;
 
+    public UserDetail(User user) {
+        this.user = user;
+    }
+
+    public UserDetail(User user, AuthorizationSnapshot.CompiledRole compiledRole) {
+        this.user = user;
+        this.compiledRole = compiledRole;
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        List<GrantedAuthority> authorityList = List.of(new SimpleGrantedAuthority(user.getRole().name()));
-        return  authorityList;
+        if (compiledRole != null) {
+            return compiledRole.authorities();
+        }
+        return user.getRole() == null
+                ? List.of()
+                : List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
     }
 
     @Override
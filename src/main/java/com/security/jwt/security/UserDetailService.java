@@ -2,27 +2,76 @@ package com.security.jwt.security;
 
 
 import com.security.jwt.constant.ExceptionMessage;
+import com.security.jwt.datasource.ReadYourWritesTracker;
+import com.security.jwt.datasource.ReplicaRoutingContext;
+import com.security.jwt.entity.User;
 import com.security.jwt.exception.EmailNotFoundException;
+import com.security.jwt.jfr.AuthEvents;
+import com.security.jwt.jfr.UserLoadEvent;
 import com.security.jwt.repository.UserRepository;
+import com.security.jwt.service.UserArchivalService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 
 @Service
 public class UserDetailService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final KnownEmailFilter knownEmailFilter;
+    private final RoleRegistry roleRegistry;
+    private final UserArchivalService userArchivalService;
 
-    public UserDetailService(UserRepository userRepository) {
+    public UserDetailService(UserRepository userRepository, ReadYourWritesTracker readYourWritesTracker,
+                             KnownEmailFilter knownEmailFilter, RoleRegistry roleRegistry,
+                             UserArchivalService userArchivalService) {
         this.userRepository = userRepository;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.knownEmailFilter = knownEmailFilter;
+        this.roleRegistry = roleRegistry;
+        this.userArchivalService = userArchivalService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
-                .map(UserDetail::new)
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        // Email chắc chắn chưa đăng ký: bỏ qua truy vấn DB. Vẫn ném cùng ngoại lệ nên DaoAuthenticationProvider
+        // vẫn so khớp mật khẩu giả, thời gian phản hồi không tiết lộ email nào tồn tại
+        if (!knownEmailFilter.mightExist(email)) {
+            commit(event, email, "FILTERED", false);
+            throw new EmailNotFoundException(ExceptionMessage.EMAIL_NOT_FOUND);
+        }
+        // Người dùng vừa được ghi thì đọc từ primary, tránh replica chưa kịp sao chép
+        boolean primary = readYourWritesTracker.isSticky(email);
+        Optional<User> user = primary
+                ? ReplicaRoutingContext.onPrimary(() -> userRepository.findByEmail(email))
+                : userRepository.findByEmail(email);
+        if (user.isPresent()) {
+            commit(event, email, "FOUND", primary);
+            return new UserDetail(user.get(), roleRegistry.role(user.get().getRole()));
+        }
+        // Người dùng lâu không đăng nhập đã được chuyển sang bảng lưu trữ; AuthenticationService khôi phục
+        // sau khi đăng nhập thành công
+        Optional<User> archived = userArchivalService.findArchived(email);
+        commit(event, email, archived.isPresent() ? "ARCHIVED" : "NOT_FOUND", primary);
+        return archived
+                .map(found -> new UserDetail(found, roleRegistry.role(found.getRole()), true))
                 .orElseThrow(() -> new EmailNotFoundException(ExceptionMessage.EMAIL_NOT_FOUND));
 
     }
+
+    private static void commit(UserLoadEvent event, String email, String outcome, boolean primary) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.userHash = AuthEvents.hash(email);
+            event.outcome = outcome;
+            event.primary = primary;
+            event.commit();
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package com.security.jwt.service;
+
+import com.security.jwt.constant.ExceptionMessage;
+import com.security.jwt.dto.request.BulkRoleUpdateRequest;
+import com.security.jwt.dto.response.BulkRoleJobResponse;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.exception.RoleException;
+import com.security.jwt.security.RoleRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Đổi vai trò hàng loạt. Người dùng được xử lý theo từng đoạn (chunk-size) theo thứ tự id, mỗi đoạn một transaction
+ * ngắn: khóa các dòng cần đổi (SELECT ... FOR UPDATE), một câu UPDATE cho cả đoạn (đổi vai trò và tăng token epoch để
+ * token cũ mang quyền cũ hết hiệu lực), một câu INSERT nhiều dòng vào nhật ký thay đổi. Bảng user chỉ bị khóa từng
+ * đoạn nhỏ, và chỉ các key của đúng những người dùng đã đổi bị xóa khỏi cache (qua sự kiện ROLE_CHANGED), thay vì
+ * một lần save cho mỗi User. Cập nhật chạy bằng JDBC nên Hibernate không xóa toàn bộ region User trong
+ * second-level cache như với bulk update HQL.
+ * Công việc chạy nền, mỗi lúc một việc; tiến độ xem qua {@link #find(String)}.
+ */
+@Slf4j
+@Service
+public class BulkRoleAssignmentService {
+
+    private static final int MAX_TRACKED_JOBS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserChangeLogService userChangeLogService;
+    private final RoleRegistry roleRegistry;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-role-assignment");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    });
+
+    @Value("${application.bulk-role.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkRoleAssignmentService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     UserChangeLogService userChangeLogService, RoleRegistry roleRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userChangeLogService = userChangeLogService;
+        this.roleRegistry = roleRegistry;
+    }
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final String role;
+        final Instant startedAt = Instant.now();
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong updated = new AtomicLong();
+        volatile String status = "RUNNING";
+        volatile Instant finishedAt;
+        volatile String error;
+
+        Job(String role) {
+            this.role = role;
+        }
+
+        BulkRoleJobResponse toResponse() {
+            return BulkRoleJobResponse.builder()
+                    .id(id)
+                    .role(role)
+                    .status(status)
+                    .total(total.get())
+                    .processed(processed.get())
+                    .updated(updated.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * Bắt đầu đổi vai trò cho các người dùng được chọn.
+     * @param auditorId Người thực hiện, ghi vào last_modified_by.
+     */
+    public BulkRoleJobResponse submit(String roleName, BulkRoleUpdateRequest request, Integer auditorId) {
+        if (roleRegistry.role(roleName) == null) {
+            throw new RoleException(ExceptionMessage.ROLE_NOT_FOUND);
+        }
+        Job job = new Job(roleName);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job, request, auditorId));
+        return job.toResponse();
+    }
+
+    public Optional<BulkRoleJobResponse> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toResponse);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run(Job job, BulkRoleUpdateRequest request, Integer auditorId) {
+        try {
+            List<Integer> ids = request.getUserIds();
+            if (ids != null && !ids.isEmpty()) {
+                List<Integer> sorted = ids.stream().distinct().sorted().toList();
+                job.total.set(sorted.size());
+                for (int from = 0; from < sorted.size() && !Thread.currentThread().isInterrupted(); from += chunkSize) {
+                    processChunk(job, sorted.subList(from, Math.min(sorted.size(), from + chunkSize)), request, auditorId);
+                }
+            } else {
+                job.total.set(countMatching(request));
+                // Duyệt theo khóa chính (keyset), không OFFSET
+                int lastId = 0;
+                List<Integer> chunk;
+                while (!(chunk = nextMatchingIds(request, lastId)).isEmpty() && !Thread.currentThread().isInterrupted()) {
+                    processChunk(job, chunk, request, auditorId);
+                    lastId = chunk.get(chunk.size() - 1);
+                }
+            }
+            job.status = "COMPLETED";
+            log.info("Bulk role assignment {} to {} completed: {} of {} users updated",
+                    job.id, job.role, job.updated.get(), job.total.get());
+        } catch (RuntimeException e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            log.error("Bulk role assignment {} to {} failed after {} users", job.id, job.role, job.processed.get(), e);
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    private void processChunk(Job job, List<Integer> ids, BulkRoleUpdateRequest request, Integer auditorId) {
+        List<UserChangedEvent> changes = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            String in = placeholders(ids.size());
+            List<Object> args = new ArrayList<>(ids);
+            args.add(job.role);
+            StringBuilder select = new StringBuilder("SELECT id, email, token_epoch FROM user WHERE id IN (")
+                    .append(in).append(") AND (role IS NULL OR role <> ?)");
+            // Lọc lại trong transaction: vai trò có thể đã đổi từ lúc chọn id
+            appendFilter(select, args, request);
+            select.append(" FOR UPDATE");
+            // Vai trò và epoch mới đi kèm sự kiện: mọi node áp dụng trực tiếp, không đọc lại từng người dùng
+            jdbcTemplate.query(select.toString(), rs -> {
+                changes.add(new UserChangedEvent(rs.getInt(1), rs.getString(2), UserChangeType.ROLE_CHANGED,
+                        job.role, rs.getInt(3) + 1));
+            }, args.toArray());
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            List<Object> updateArgs = new ArrayList<>(changes.size() + 3);
+            updateArgs.add(job.role);
+            updateArgs.add(Timestamp.from(Instant.now()));
+            updateArgs.add(auditorId);
+            changes.forEach(change -> updateArgs.add(change.userId()));
+            jdbcTemplate.update("UPDATE user SET role = ?, token_epoch = token_epoch + 1, last_modified_date = ?,"
+                    + " last_modified_by = ? WHERE id IN (" + placeholders(changes.size()) + ")", updateArgs.toArray());
+            // Sau commit: sự kiện ROLE_CHANGED xóa cache từng người, sự kiện lô cập nhật token epoch một lần
+            userChangeLogService.recordAll(changes);
+        });
+        job.processed.addAndGet(ids.size());
+        job.updated.addAndGet(changes.size());
+        log.debug("Bulk role assignment {}: {}/{} users processed", job.id, job.processed.get(), job.total.get());
+    }
+
+    private long countMatching(BulkRoleUpdateRequest request) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM user WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendFilter(sql, args, request);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    private List<Integer> nextMatchingIds(BulkRoleUpdateRequest request, int afterId) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM user WHERE id > ?");
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        appendFilter(sql, args, request);
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(chunkSize);
+        return jdbcTemplate.queryForList(sql.toString(), Integer.class, args.toArray());
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, BulkRoleUpdateRequest request) {
+        if (request.getCurrentRole() != null && !request.getCurrentRole().isBlank()) {
+            sql.append(" AND role = ?");
+            args.add(request.getCurrentRole());
+        }
+        if (request.getEmailDomain() != null && !request.getEmailDomain().isBlank()) {
+            sql.append(" AND email LIKE ? ESCAPE '!'");
+            String domain = request.getEmailDomain().trim().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            args.add("%@" + domain);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.security.jwt.service;
+
+import com.security.jwt.constant.ExceptionMessage;
+import com.security.jwt.constant.FriendShipStatus;
+import com.security.jwt.dto.response.FriendRequestResponse;
+import com.security.jwt.entity.Friendship;
+import com.security.jwt.entity.FriendshipId;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.exception.FriendshipException;
+import com.security.jwt.repository.FriendshipRepository;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.utils.CacheRegion;
+import com.security.jwt.utils.MyCache;
+import com.security.jwt.utils.SortedIntArrays;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lời mời kết bạn, chấp nhận, hủy kết bạn và các truy vấn quan hệ.
+ * Danh sách bạn của mỗi người dùng được cache dưới dạng int[] đã sắp xếp (region "friend-adjacency", giới hạn kích thước),
+ * nên kiểm tra "A và B có là bạn" là một lần tìm nhị phân và bạn chung là phép giao hai mảng, không truy cập DB.
+ * Mỗi thay đổi ghi nhật ký FRIENDSHIP_CHANGED cho cả hai người dùng để mọi node xóa danh sách đã cũ.
+ */
+@Service
+public class FriendshipService {
+
+    public static final String ADJACENCY_REGION = "friend-adjacency";
+
+    private final FriendshipRepository friendshipRepository;
+    private final UserRepository userRepository;
+    private final UserChangeLogService userChangeLogService;
+    private final CacheRegion<Integer, int[]> adjacency;
+
+    public FriendshipService(FriendshipRepository friendshipRepository,
+                             UserRepository userRepository,
+                             UserChangeLogService userChangeLogService,
+                             MyCache myCache) {
+        this.friendshipRepository = friendshipRepository;
+        this.userRepository = userRepository;
+        this.userChangeLogService = userChangeLogService;
+        this.adjacency = myCache.region(ADJACENCY_REGION);
+    }
+
+    /**
+     * Gửi lời mời kết bạn. Nếu người kia đã gửi lời mời cho mình trước đó thì hai người trở thành bạn luôn.
+     */
+    @Transactional
+    public int sendRequest(int userId, int targetUserId) {
+        if (userId == targetUserId) {
+            throw new FriendshipException(ExceptionMessage.FRIEND_SELF);
+        }
+        if (!userRepository.existsById(targetUserId)) {
+            throw new FriendshipException(ExceptionMessage.FRIEND_USER_NOT_FOUND);
+        }
+
+        Optional<Friendship> existing = friendshipRepository.findById(FriendshipId.of(userId, targetUserId));
+        if (existing.isEmpty()) {
+            friendshipRepository.save(Friendship.builder()
+                    .id(FriendshipId.of(userId, targetUserId))
+                    .requesterId(userId)
+                    .status(FriendShipStatus.WAITING_ACCEPT)
+                    .build());
+            return FriendShipStatus.WAITING_ACCEPT;
+        }
+
+        Friendship friendship = existing.get();
+        if (friendship.getStatus() == FriendShipStatus.WAITING_ACCEPT && friendship.getRequesterId() == targetUserId) {
+            return becomeFriends(friendship);
+        }
+        return friendship.getStatus();
+    }
+
+    /**
+     * Chấp nhận lời mời kết bạn do requesterUserId gửi.
+     */
+    @Transactional
+    public int accept(int userId, int requesterUserId) {
+        Friendship friendship = friendshipRepository.findById(FriendshipId.of(userId, requesterUserId))
+                .filter(f -> f.getStatus() == FriendShipStatus.WAITING_ACCEPT && f.getRequesterId() == requesterUserId)
+                .orElseThrow(() -> new FriendshipException(ExceptionMessage.FRIEND_REQUEST_NOT_FOUND));
+        return becomeFriends(friendship);
+    }
+
+    /**
+     * Hủy kết bạn, từ chối lời mời nhận được hoặc rút lại lời mời đã gửi.
+     */
+    @Transactional
+    public void remove(int userId, int otherUserId) {
+        friendshipRepository.findById(FriendshipId.of(userId, otherUserId)).ifPresent(friendship -> {
+            friendshipRepository.delete(friendship);
+            if (friendship.getStatus() == FriendShipStatus.FRIEND) {
+                recordChange(userId, otherUserId);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public int status(int userId, int otherUserId) {
+        if (areFriends(userId, otherUserId)) {
+            return FriendShipStatus.FRIEND;
+        }
+        return friendshipRepository.findById(FriendshipId.of(userId, otherUserId))
+                .map(Friendship::getStatus)
+                .orElse(FriendShipStatus.NONE);
+    }
+
+    public boolean areFriends(int userId, int otherUserId) {
+        return SortedIntArrays.contains(friendIds(userId), otherUserId);
+    }
+
+    /**
+     * @return Id bạn bè đã sắp xếp tăng dần. Mảng dùng chung với cache, không được sửa.
+     */
+    public int[] friendIds(int userId) {
+        return adjacency.get(userId, this::loadFriendIds);
+    }
+
+    public int[] mutualFriendIds(int userId, int otherUserId) {
+        return SortedIntArrays.intersect(friendIds(userId), friendIds(otherUserId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendRequestResponse> incomingRequests(int userId) {
+        return friendshipRepository.findIncomingRequests(userId).stream()
+                .map(friendship -> FriendRequestResponse.builder()
+                        .userId(friendship.getRequesterId())
+                        .createdDate(friendship.getCreatedDate())
+                        .build())
+                .toList();
+    }
+
+    private int becomeFriends(Friendship friendship) {
+        friendship.setStatus(FriendShipStatus.FRIEND);
+        friendshipRepository.save(friendship);
+        recordChange(friendship.getId().getUserId1(), friendship.getId().getUserId2());
+        return FriendShipStatus.FRIEND;
+    }
+
+    private void recordChange(int userId, int otherUserId) {
+        userChangeLogService.record(userId, null, UserChangeType.FRIENDSHIP_CHANGED);
+        userChangeLogService.record(otherUserId, null, UserChangeType.FRIENDSHIP_CHANGED);
+    }
+
+    private int[] loadFriendIds(Integer userId) {
+        List<Integer> asUser1 = friendshipRepository.findUserId2ByUserId1AndStatus(userId, FriendShipStatus.FRIEND);
+        List<Integer> asUser2 = friendshipRepository.findUserId1ByUserId2AndStatus(userId, FriendShipStatus.FRIEND);
+        int[] ids = new int[asUser1.size() + asUser2.size()];
+        int i = 0;
+        for (Integer id : asUser1) {
+            ids[i++] = id;
+        }
+        for (Integer id : asUser2) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,101 @@
+package com.security.jwt.service;
+
+import com.security.jwt.constant.ExceptionMessage;
+import com.security.jwt.dto.request.RoleRequest;
+import com.security.jwt.dto.response.RoleResponse;
+import com.security.jwt.entity.PermissionDefinition;
+import com.security.jwt.entity.RoleDefinition;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.exception.RoleConflictException;
+import com.security.jwt.exception.RoleException;
+import com.security.jwt.repository.PermissionDefinitionRepository;
+import com.security.jwt.repository.RoleDefinitionRepository;
+import com.security.jwt.security.AuthorizationSnapshot;
+import com.security.jwt.security.RoleRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Quản lý định nghĩa vai trò và quyền. Mỗi thay đổi ghi nhật ký ROLES_CHANGED cùng transaction,
+ * mọi node (kể cả node hiện tại, sau commit) sẽ nạp lại snapshot phân quyền mà không cần khởi động lại.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoleService {
+
+    private final RoleDefinitionRepository roleRepository;
+    private final PermissionDefinitionRepository permissionRepository;
+    private final UserChangeLogService userChangeLogService;
+    private final RoleRegistry roleRegistry;
+    private final EntityManager entityManager;
+
+    /**
+     * Danh sách vai trò lấy từ snapshot hiện hành, không truy vấn DB.
+     */
+    public List<RoleResponse> findAll() {
+        AuthorizationSnapshot snapshot = roleRegistry.current();
+        return snapshot.roles().stream()
+                .sorted(Comparator.comparingInt(AuthorizationSnapshot.CompiledRole::id))
+                .map(role -> RoleResponse.builder()
+                        .name(role.name())
+                        .permissions(role.authorities().stream()
+                                .map(Object::toString)
+                                .filter(authority -> !authority.startsWith("ROLE_"))
+                                .toList())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Tạo mới hoặc thay toàn bộ tập quyền của một vai trò.
+     */
+    @Transactional
+    public void saveRole(String name, RoleRequest request) {
+        String roleName = name.trim().toUpperCase(Locale.ROOT);
+        Set<String> permissionNames = request.getPermissions() == null ? Set.of() : request.getPermissions();
+        List<PermissionDefinition> permissions = permissionRepository.findByNameIn(permissionNames);
+        if (permissions.size() != permissionNames.size()) {
+            Set<String> missing = new HashSet<>(permissionNames);
+            permissions.forEach(permission -> missing.remove(permission.getName()));
+            throw new RoleException(ExceptionMessage.PERMISSION_NOT_FOUND + String.join(", ", missing));
+        }
+
+        RoleDefinition role = roleRepository.findByName(roleName)
+                .orElseGet(() -> RoleDefinition.builder().name(roleName).build());
+        role.setPermissions(new HashSet<>(permissions));
+        roleRepository.save(role);
+        userChangeLogService.record(null, null, UserChangeType.ROLES_CHANGED);
+    }
+
+    /**
+     * Khai báo quyền mới với id kế tiếp (id là vị trí bit, không dùng lại id cũ).
+     * Hai yêu cầu đồng thời có thể đọc cùng max(id): INSERT (persist, không phải merge nên không ghi đè dòng của
+     * yêu cầu kia) của yêu cầu sau vi phạm khóa chính hoặc unique(name) và được trả về 409 để client thử lại.
+     */
+    @Transactional
+    public void definePermission(String name) {
+        if (permissionRepository.findByName(name).isPresent()) {
+            return;
+        }
+        try {
+            entityManager.persist(PermissionDefinition.builder()
+                    .id(permissionRepository.findMaxId() + 1)
+                    .name(name)
+                    .build());
+            entityManager.flush();
+        } catch (PersistenceException | DataIntegrityViolationException e) {
+            throw new RoleConflictException(ExceptionMessage.PERMISSION_CONFLICT);
+        }
+        userChangeLogService.record(null, null, UserChangeType.ROLES_CHANGED);
+    }
+}
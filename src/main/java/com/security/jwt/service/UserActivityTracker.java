@@ -0,0 +1,150 @@
+package com.security.jwt.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gộp ghi thời điểm đăng nhập/hoạt động cuối của người dùng. Mỗi lần đăng nhập hoặc request đã xác thực chỉ cập
+ * nhật một ConcurrentHashMap trong bộ nhớ (giữ thời điểm lớn nhất theo id); định kỳ các thay đổi được lấy ra và
+ * ghi bằng một JDBC batch UPDATE, nên số câu ghi theo số người dùng hoạt động trong mỗi chu kỳ chứ không theo
+ * số request. Thời điểm được làm tròn xuống giây: request tiếp theo trong cùng giây không ghi gì vào map.
+ * Khi node dừng đột ngột chỉ mất tối đa một chu kỳ (flush-interval); dừng bình thường thì flush lần cuối.
+ * UPDATE chỉ tăng giá trị, nên nhiều node ghi cùng người dùng theo thứ tự bất kỳ vẫn đúng. Giá trị trong DB có thể
+ * chậm tối đa một chu kỳ so với hoạt động trên node khác: nơi dùng các cột này để ra quyết định phải chừa khoảng đó.
+ */
+@Slf4j
+@Component
+public class UserActivityTracker {
+
+    // Giá trị lớn nhất của hai cột, bỏ qua tham số null (người dùng không đăng nhập trong chu kỳ)
+    private static final String UPDATE_SQL = "UPDATE user"
+            + " SET last_login_at = COALESCE(GREATEST(last_login_at, ?), ?, last_login_at),"
+            + " last_seen_at = COALESCE(GREATEST(last_seen_at, ?), ?, last_seen_at)"
+            + " WHERE id = ?";
+    private static final int[] ARG_TYPES = {Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER};
+    private static final long NONE = 0;
+
+    /**
+     * Thời điểm (epoch millis, 0 nếu không có) đăng nhập và hoạt động cuối chưa được ghi.
+     */
+    private record Activity(long login, long seen) {
+
+        Activity max(Activity other) {
+            return new Activity(Math.max(login, other.login), Math.max(seen, other.seen));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Integer, Activity> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+
+    @Value("${application.user-activity.batch-size:1000}")
+    private int batchSize;
+
+    public UserActivityTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushed = Counter.builder("user.activity.flushed")
+                .description("User activity rows written by the batched flush")
+                .register(meterRegistry);
+        Gauge.builder("user.activity.pending", pending, Map::size)
+                .description("Users with activity not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    public void recordLogin(Integer userId) {
+        long now = nowSeconds();
+        record(userId, new Activity(now, now));
+    }
+
+    public void recordSeen(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = nowSeconds();
+        // Đường nóng (mọi request): đã ghi nhận trong giây này thì không tạo đối tượng mới
+        Activity current = pending.get(userId);
+        if (current != null && current.seen() >= now) {
+            return;
+        }
+        record(userId, new Activity(NONE, now));
+    }
+
+    private void record(Integer userId, Activity activity) {
+        if (userId != null) {
+            pending.merge(userId, activity, Activity::max);
+        }
+    }
+
+    /**
+     * Ghi mọi thay đổi đang chờ. Mỗi người dùng được lấy ra khỏi map bằng remove nguyên tử: hoạt động đến sau đó
+     * nằm trong lần flush tiếp theo. Ghi lỗi thì trả lại map để thử lại ở chu kỳ sau.
+     * @return Số người dùng đã ghi.
+     */
+    @Scheduled(fixedDelayString = "${application.user-activity.flush-interval:10000}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = new ArrayList<>(pending.keySet());
+        Map<Integer, Activity> drained = new HashMap<>(ids.size() * 2);
+        for (Integer id : ids) {
+            Activity activity = pending.remove(id);
+            if (activity != null) {
+                drained.put(id, activity);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        drained.forEach((id, activity) -> {
+            Timestamp login = toTimestamp(activity.login());
+            Timestamp seen = toTimestamp(activity.seen());
+            rows.add(new Object[]{login, login, seen, seen, id});
+        });
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)), ARG_TYPES);
+            }
+        } catch (RuntimeException e) {
+            drained.forEach(this::record);
+            log.warn("Failed to flush activity of {} users, retrying next interval: {}", drained.size(), e.toString());
+            return 0;
+        }
+        flushed.increment(rows.size());
+        log.debug("Flushed activity of {} users", rows.size());
+        return rows.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        log.info("Flushed activity of {} users on shutdown", written);
+    }
+
+    public int pendingSize() {
+        return pending.size();
+    }
+
+    private static long nowSeconds() {
+        long now = System.currentTimeMillis();
+        return now - now % 1000;
+    }
+
+    private static Timestamp toTimestamp(long millis) {
+        return millis == NONE ? null : new Timestamp(millis);
+    }
+}
@@ -0,0 +1,229 @@
+package com.security.jwt.service;
+
+import com.security.jwt.constant.FriendShipStatus;
+import com.security.jwt.datasource.ReplicaRoutingContext;
+import com.security.jwt.entity.User;
+import com.security.jwt.entity.UserArchive;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserArchiveRepository;
+import com.security.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chuyển người dùng không đăng nhập và không hoạt động trong application.user-archival.inactive-after (cộng thêm
+ * một chu kỳ application.user-activity.flush-interval cho hoạt động các node chưa ghi) sang bảng user_archive, để
+ * bảng user và các index của nó (email, tên, họ) chỉ chứa người dùng còn hoạt động. Người dùng chưa từng đăng nhập
+ * được tính theo ngày tạo. Job chạy nền theo từng lô (batch-size) theo thứ tự id, mỗi lô một transaction ngắn:
+ * khóa các dòng còn thỏa điều kiện (đăng nhập đồng thời sẽ làm dòng không còn thỏa), chép sang bảng lưu trữ,
+ * xóa khỏi bảng user và ghi sự kiện ARCHIVED để các node xóa cache. Các dòng friendship được giữ nguyên (danh sách
+ * bạn chỉ trả về người dùng còn trong bảng user); bạn bè của người dùng được lưu trữ hoặc khôi phục nhận sự kiện
+ * FRIENDSHIP_CHANGED để danh sách bạn đã cache được nạp lại.
+ * Lần đăng nhập thành công tiếp theo khôi phục nguyên dòng (cùng id) về bảng user qua {@link #restore(Integer)}.
+ */
+@Slf4j
+@Service
+public class UserArchivalService {
+
+    // Các cột chung của user và user_archive
+    private static final String COLUMNS = "id, firstname, lastname, email, password, role, token_epoch, created_date,"
+            + " created_by, last_modified_date, last_modified_by, last_login_at, last_seen_at";
+    // Không đăng nhập và không hoạt động từ mốc cắt; chưa có cả hai thì tính theo ngày tạo. Ba tham số: mốc cắt
+    private static final String DORMANT = "(last_login_at IS NULL OR last_login_at < ?)"
+            + " AND (last_seen_at IS NULL OR last_seen_at < ?)"
+            + " AND (last_login_at IS NOT NULL OR last_seen_at IS NOT NULL OR created_date < ?)";
+    private static final String FRIENDS_OF = "SELECT user_id2 FROM friendship WHERE status = ? AND user_id1 IN (%1$s)"
+            + " UNION SELECT user_id1 FROM friendship WHERE status = ? AND user_id2 IN (%1$s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UserArchiveRepository userArchiveRepository;
+    private final UserChangeLogService userChangeLogService;
+    private final UserActivityTracker userActivityTracker;
+    private final Counter archived;
+    private final Counter restored;
+
+    @Value("${application.user-archival.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.user-archival.inactive-after:180d}")
+    private Duration inactiveAfter;
+
+    @Value("${application.user-archival.batch-size:500}")
+    private int batchSize;
+
+    @Value("${application.user-activity.flush-interval:10000}")
+    private long activityFlushInterval;
+
+    public UserArchivalService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               UserRepository userRepository, UserArchiveRepository userArchiveRepository,
+                               UserChangeLogService userChangeLogService, UserActivityTracker userActivityTracker,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.userArchiveRepository = userArchiveRepository;
+        this.userChangeLogService = userChangeLogService;
+        this.userActivityTracker = userActivityTracker;
+        this.archived = Counter.builder("user.archival.archived")
+                .description("Dormant users moved to the archive table")
+                .register(meterRegistry);
+        this.restored = Counter.builder("user.archival.restored")
+                .description("Archived users restored on login")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.user-archival.interval:86400000}",
+            initialDelayString = "${application.user-archival.initial-delay:3600000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveDormantUsers();
+        }
+    }
+
+    /**
+     * @return Số người dùng đã chuyển sang bảng lưu trữ.
+     */
+    public long archiveDormantUsers() {
+        // Lần đăng nhập chưa ghi xuống DB không được để người dùng vừa đăng nhập bị lưu trữ. flush() chỉ ghi hoạt
+        // động của node này; node khác ghi chậm tối đa một chu kỳ flush-interval, nên mốc cắt lùi thêm một chu kỳ
+        userActivityTracker.flush();
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(inactiveAfter).minusMillis(activityFlushInterval));
+        long total = 0;
+        // Duyệt theo khóa chính (keyset), không OFFSET: lô sau bắt đầu sau id lớn nhất của lô trước
+        int lastId = 0;
+        List<Integer> batch;
+        while (!(batch = jdbcTemplate.queryForList("SELECT id FROM user WHERE id > ? AND " + DORMANT
+                + " ORDER BY id LIMIT ?", Integer.class, lastId, cutoff, cutoff, cutoff, batchSize)).isEmpty()) {
+            total += archiveBatch(batch, cutoff);
+            lastId = batch.get(batch.size() - 1);
+        }
+        if (total > 0) {
+            log.info("Archived {} users without a login since {}", total, cutoff.toInstant());
+        }
+        return total;
+    }
+
+    private int archiveBatch(List<Integer> ids, Timestamp cutoff) {
+        List<UserChangedEvent> changes = new ArrayList<>(ids.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object> args = new ArrayList<>(ids);
+            args.add(cutoff);
+            args.add(cutoff);
+            args.add(cutoff);
+            // Lọc lại trong transaction: người dùng có thể vừa đăng nhập từ lúc chọn id
+            jdbcTemplate.query("SELECT id, email FROM user WHERE id IN (" + placeholders(ids.size()) + ") AND "
+                    + DORMANT + " FOR UPDATE", rs -> {
+                changes.add(new UserChangedEvent(rs.getInt(1), rs.getString(2), UserChangeType.ARCHIVED));
+            }, args.toArray());
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            List<Object> locked = new ArrayList<>(changes.size() + 1);
+            locked.add(Timestamp.from(Instant.now()));
+            changes.forEach(change -> locked.add(change.userId()));
+            String in = placeholders(changes.size());
+            jdbcTemplate.update("INSERT INTO user_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS
+                    + ", ? FROM user WHERE id IN (" + in + ")", locked.toArray());
+            List<Object> archivedIds = locked.subList(1, locked.size());
+            jdbcTemplate.update("DELETE FROM user WHERE id IN (" + in + ")", archivedIds.toArray());
+            // Sự kiện ARCHIVED xóa người dùng khỏi cache (kể cả second-level cache) sau khi commit
+            List<UserChangedEvent> events = new ArrayList<>(changes);
+            events.addAll(friendshipChanges(archivedIds));
+            userChangeLogService.recordAll(events);
+        });
+        archived.increment(changes.size());
+        return changes.size();
+    }
+
+    /**
+     * Người dùng đã lưu trữ có email này, dưới dạng User chưa gắn với persistence context (chỉ để xác thực).
+     */
+    public Optional<User> findArchived(String email) {
+        return userArchiveRepository.findByEmail(email).map(UserArchivalService::toUser);
+    }
+
+    public boolean isArchived(String email) {
+        return userArchiveRepository.existsByEmail(email);
+    }
+
+    /**
+     * Chuyển người dùng từ bảng lưu trữ về bảng user, giữ nguyên id. Gọi sau khi đăng nhập thành công;
+     * nếu hai lần đăng nhập khôi phục cùng lúc thì lần sau chỉ đọc lại người dùng đã khôi phục.
+     * @return Người dùng trong bảng user, hoặc rỗng nếu không còn ở cả hai bảng.
+     */
+    public Optional<User> restore(Integer userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> emails = jdbcTemplate.queryForList(
+                    "SELECT email FROM user_archive WHERE id = ? FOR UPDATE", String.class, userId);
+            if (emails.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.update("INSERT INTO user (" + COLUMNS + ") SELECT " + COLUMNS
+                    + " FROM user_archive WHERE id = ?", userId);
+            jdbcTemplate.update("DELETE FROM user_archive WHERE id = ?", userId);
+            List<UserChangedEvent> events = new ArrayList<>();
+            events.add(new UserChangedEvent(userId, emails.get(0), UserChangeType.RESTORED));
+            events.addAll(friendshipChanges(List.of(userId)));
+            userChangeLogService.recordAll(events);
+            restored.increment();
+            log.info("Restored archived user {}", userId);
+        });
+        // Đọc trên primary: replica có thể chưa kịp sao chép dòng vừa khôi phục
+        return ReplicaRoutingContext.onPrimary(() -> userRepository.findById(userId));
+    }
+
+    /**
+     * Sự kiện FRIENDSHIP_CHANGED cho bạn bè của các người dùng, để danh sách bạn đã cache của họ được nạp lại.
+     */
+    private List<UserChangedEvent> friendshipChanges(List<?> userIds) {
+        List<Object> args = new ArrayList<>(userIds.size() * 2 + 2);
+        args.add(FriendShipStatus.FRIEND);
+        args.addAll(userIds);
+        args.add(FriendShipStatus.FRIEND);
+        args.addAll(userIds);
+        return jdbcTemplate.query(FRIENDS_OF.formatted(placeholders(userIds.size())),
+                (rs, rowNum) -> new UserChangedEvent(rs.getInt(1), null, UserChangeType.FRIENDSHIP_CHANGED),
+                args.toArray());
+    }
+
+    private static User toUser(UserArchive archive) {
+        return User.builder()
+                .id(archive.getId())
+                .firstname(archive.getFirstname())
+                .lastname(archive.getLastname())
+                .email(archive.getEmail())
+                .password(archive.getPassword())
+                .role(archive.getRole())
+                .tokenEpoch(archive.getTokenEpoch())
+                .createdDate(archive.getCreatedDate())
+                .createdBy(archive.getCreatedBy())
+                .lastModifiedDate(archive.getLastModifiedDate())
+                .lastModifiedBy(archive.getLastModifiedBy())
+                .lastLoginAt(archive.getLastLoginAt())
+                .lastSeenAt(archive.getLastSeenAt())
+                .build();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.security.jwt.service;
+
+import com.security.jwt.entity.UserChangeLog;
+import com.security.jwt.event.UserChangeBatchEvent;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserChangeLogRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Đọc nhật ký thay đổi User theo id tăng dần (high-water mark) và phát lại thành {@link UserChangedEvent}
+ * trên node hiện tại, giúp cache cục bộ của các node khác nhau luôn nhất quán với độ trễ giới hạn.
+ */
+@Slf4j
+@Component
+public class UserChangeLogPoller {
+
+    private final UserChangeLogRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    // Transaction có id nhỏ hơn có thể commit muộn hơn; chờ tối đa khoảng này trước khi bỏ qua khoảng trống id
+    @Value("${application.cache.invalidation.commit-grace:10s}")
+    private Duration commitGrace;
+
+    @Value("${application.cache.invalidation.retention:1d}")
+    private Duration retention;
+
+    private long highWaterMark;
+    private final Set<Long> seenAboveMark = new HashSet<>();
+
+    public UserChangeLogPoller(UserChangeLogRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Node mới khởi động chưa có cache nên chỉ cần đọc các thay đổi kể từ thời điểm này.
+     */
+    @PostConstruct
+    public void init() {
+        highWaterMark = repository.findMaxId();
+    }
+
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.poll-interval:1000}")
+    public synchronized void poll() {
+        List<UserChangeLog> changes = repository.findByIdGreaterThanOrderByIdAsc(highWaterMark, PageRequest.of(0, batchSize));
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<UserChangedEvent> replayed = new ArrayList<>(changes.size());
+        for (UserChangeLog change : changes) {
+            if (seenAboveMark.add(change.getId())) {
+                UserChangedEvent event = new UserChangedEvent(change.getUserId(), change.getEmail(),
+                        change.getChangeType(), change.getRole(), change.getTokenEpoch());
+                eventPublisher.publishEvent(event);
+                replayed.add(event);
+            }
+        }
+        if (!replayed.isEmpty()) {
+            eventPublisher.publishEvent(new UserChangeBatchEvent(replayed));
+        }
+
+        // Chỉ dịch high-water mark qua các id liên tiếp, hoặc qua khoảng trống đã quá thời gian chờ commit
+        Instant graceLimit = Instant.now().minus(commitGrace);
+        long mark = highWaterMark;
+        for (UserChangeLog change : changes) {
+            if (change.getId() != mark + 1 && change.getCreatedAt().isAfter(graceLimit)) {
+                break;
+            }
+            mark = change.getId();
+        }
+        final long newMark = mark;
+        seenAboveMark.removeIf(id -> id <= newMark);
+        highWaterMark = newMark;
+    }
+
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.cleanup-interval:3600000}")
+    public void cleanup() {
+        int deleted = repository.deleteByCreatedAtBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Deleted {} expired user change log entries", deleted);
+        }
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+}
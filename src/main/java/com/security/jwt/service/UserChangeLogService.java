@@ -0,0 +1,88 @@
+package com.security.jwt.service;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.entity.UserChangeLog;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangeBatchEvent;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class UserChangeLogService {
+
+    private final UserChangeLogRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ghi nhật ký thay đổi của người dùng. Bắt buộc chạy trong transaction đang cập nhật User,
+     * để nhật ký và dữ liệu luôn được commit (hoặc rollback) cùng nhau.
+     * @param user Người dùng vừa thay đổi.
+     * @param changeType Loại thay đổi.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(User user, UserChangeType changeType) {
+        record(new UserChangedEvent(user.getId(), user.getEmail(), changeType, user.getRole(), user.getTokenEpoch()));
+    }
+
+    /**
+     * Ghi nhật ký thay đổi chỉ theo id, cho các thay đổi không nạp entity User (ví dụ quan hệ bạn bè).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Integer userId, String email, UserChangeType changeType) {
+        record(new UserChangedEvent(userId, email, changeType));
+    }
+
+    private void record(UserChangedEvent change) {
+        repository.save(UserChangeLog.builder()
+                .userId(change.userId())
+                .email(change.email())
+                .changeType(change.changeType())
+                .role(change.role())
+                .tokenEpoch(change.tokenEpoch())
+                .createdAt(Instant.now())
+                .build());
+
+        // Node hiện tại xóa cache ngay sau commit, không cần chờ poller
+        eventPublisher.publishEvent(change);
+        eventPublisher.publishEvent(new UserChangeBatchEvent(List.of(change)));
+    }
+
+    /**
+     * Ghi nhiều dòng nhật ký bằng một câu INSERT nhiều dòng, cho thao tác hàng loạt (ví dụ đổi vai trò cả nhóm).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<UserChangedEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO user_change_log (user_id, email, change_type, role, token_epoch, created_at) VALUES ");
+        Object[] args = new Object[changes.size() * 6];
+        Timestamp now = Timestamp.from(Instant.now());
+        int i = 0;
+        for (UserChangedEvent change : changes) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+            args[i++] = change.userId();
+            args[i++] = change.email();
+            args[i++] = change.changeType().name();
+            args[i++] = change.role();
+            args[i++] = change.tokenEpoch();
+            args[i++] = now;
+        }
+        jdbcTemplate.update(sql.toString(), args);
+        changes.forEach(eventPublisher::publishEvent);
+        eventPublisher.publishEvent(new UserChangeBatchEvent(List.copyOf(changes)));
+    }
+}
@@ -0,0 +1,170 @@
+package com.security.jwt.service;
+
+import com.security.jwt.datasource.ReplicaRoutingContext;
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Chỉ mục tiền tố trong bộ nhớ cho tìm kiếm người dùng ở trang quản trị. Mỗi người dùng có tối đa ba khóa
+ * (email, tên, họ đã chuẩn hóa: chữ thường, bỏ dấu) trong một ConcurrentSkipListMap có thứ tự; tìm theo tiền tố
+ * là một lần duyệt subMap nên chỉ tốn vài micro giây, không truy vấn DB. Chỉ mục được nạp lúc khởi động bằng
+ * cách đọc dạng stream bảng user và cập nhật khi có đăng ký/đổi vai trò trên node này hoặc node khác.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.user-search", name = "mode", havingValue = "index", matchIfMissing = true)
+public class UserSearchIndex {
+
+    // Khóa dạng "<giá trị chuẩn hóa>\0<id>" để nhiều người dùng trùng tên vẫn có khóa riêng
+    private static final char SEPARATOR = '\0';
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    // Người dùng đã lưu trữ không còn trong bảng user nên bị gỡ khỏi chỉ mục; khôi phục thì thêm lại
+    private static final Set<UserChangeType> INDEXED_CHANGES = EnumSet.of(UserChangeType.REGISTER,
+            UserChangeType.ROLE_CHANGED, UserChangeType.ARCHIVED, UserChangeType.RESTORED);
+
+    private record Entry(int id, String email, String firstname, String lastname, String role, String[] keys) {
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentSkipListMap<String, Integer> keys = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    public UserSearchIndex(UserRepository userRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("user.search.index.size", entries, Map::size)
+                .description("Users loaded into the prefix search index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        long loaded = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = userRepository.streamSearchFields()) {
+                // Sự kiện đến trong lúc nạp mới hơn dòng đang đọc nên không bị ghi đè
+                return rows.peek(row -> put(new Entry((Integer) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4], null), false)).count();
+            }
+        });
+        log.info("User search index loaded with {} users ({} keys)", loaded, keys.size());
+    }
+
+    /**
+     * @return Tối đa limit người dùng có email, tên hoặc họ bắt đầu bằng prefix, theo thứ tự khóa.
+     */
+    public List<UserResponse> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Mọi khóa bắt đầu bằng normalized nằm trong [normalized, normalized + Character.MAX_VALUE)
+        ConcurrentNavigableMap<String, Integer> matches = keys.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Integer id : matches.values()) {
+            if (ids.add(id) && ids.size() == limit) {
+                break;
+            }
+        }
+        List<UserResponse> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                result.add(new UserResponse(entry.id(), entry.firstname(), entry.lastname(), entry.email(), entry.role()));
+            }
+        }
+        return result;
+    }
+
+    public void upsert(User user) {
+        put(new Entry(user.getId(), user.getEmail(), user.getFirstname(), user.getLastname(), user.getRole(), null), true);
+    }
+
+    public synchronized void remove(Integer userId) {
+        Entry previous = entries.remove(userId);
+        if (previous != null) {
+            for (String key : previous.keys()) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() == null || !INDEXED_CHANGES.contains(event.changeType())) {
+            return;
+        }
+        // Sự kiện đã đủ thông tin thì không đọc lại DB (đổi vai trò hàng loạt phát một sự kiện cho mỗi người dùng)
+        if (event.changeType() == UserChangeType.ARCHIVED) {
+            remove(event.userId());
+            return;
+        }
+        if (event.changeType() == UserChangeType.ROLE_CHANGED && event.role() != null
+                && entries.computeIfPresent(event.userId(), (id, entry) -> new Entry(entry.id(), entry.email(),
+                        entry.firstname(), entry.lastname(), event.role(), entry.keys())) != null) {
+            return;
+        }
+        // Đọc trên primary: sự kiện đến ngay sau commit, replica có thể chưa kịp sao chép
+        ReplicaRoutingContext.onPrimary(() -> userRepository.findById(event.userId()))
+                .ifPresentOrElse(this::upsert, () -> remove(event.userId()));
+    }
+
+    private synchronized void put(Entry entry, boolean replace) {
+        if (!replace && entries.containsKey(entry.id())) {
+            return;
+        }
+        String[] entryKeys = Stream.of(entry.email(), entry.firstname(), entry.lastname())
+                .map(UserSearchIndex::normalize)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .map(value -> value + SEPARATOR + entry.id())
+                .toArray(String[]::new);
+        remove(entry.id());
+        for (String key : entryKeys) {
+            keys.put(key, entry.id());
+        }
+        entries.put(entry.id(), new Entry(entry.id(), entry.email(), entry.firstname(), entry.lastname(), entry.role(), entryKeys));
+    }
+
+    /**
+     * Chữ thường, bỏ dấu tiếng Việt (kể cả "đ"), để "Nguyễn" và "nguyen" cùng khớp.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String lower = value.trim().toLowerCase(Locale.ROOT).replace('đ', 'd');
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -0,0 +1,44 @@
+package com.security.jwt.service;
+
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.mapper.UserMapper;
+import com.security.jwt.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Tìm người dùng theo tiền tố email/tên/họ cho trang quản trị. Mặc định dùng {@link UserSearchIndex} trong bộ nhớ;
+ * với application.user-search.mode=query (ví dụ node ít RAM, bảng rất lớn) thì truy vấn LIKE 'prefix%' trên DB.
+ */
+@Service
+public class UserSearchService {
+
+    private final UserSearchIndex index;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    @Value("${application.user-search.max-results:20}")
+    private int maxResults;
+
+    public UserSearchService(ObjectProvider<UserSearchIndex> index, UserRepository userRepository, UserMapper userMapper) {
+        this.index = index.getIfAvailable();
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+    }
+
+    public List<UserResponse> search(String prefix, Integer limit) {
+        int size = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (index != null) {
+            return index.search(prefix, size);
+        }
+        String escaped = prefix.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return userMapper.toDTOList(userRepository.searchByPrefix(escaped + "%", PageRequest.of(0, size)));
+    }
+}
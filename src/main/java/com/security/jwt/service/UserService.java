@@ -1,21 +1,35 @@
 package com.security.jwt.service;
 
+import com.security.jwt.auditing.SecurityEventPublisher;
+import com.security.jwt.constant.ExceptionMessage;
 import com.security.jwt.dto.request.ChangePasswordRequest;
-import com.security.jwt.entity.User;
-import com.security.jwt.repository.UserRepository;
+import com.security.jwt.enum_constant.SecurityEventType;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.exception.BreachedPasswordException;
+import com.security.jwt.security.BreachedPasswordChecker;
+import com.security.jwt.security.UserDetail;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final PasswordEncoder passwordEncoder;
-    private final UserRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserChangeLogService userChangeLogService;
+    private final SecurityEventPublisher securityEventPublisher;
+    private final BreachedPasswordChecker breachedPasswordChecker;
 
     /**
      * Thay đổi mật khẩu cho người dùng hiện đang xác thực.
@@ -23,25 +37,70 @@ public class UserService {
      * @param connectedUser Đối tượng Principal của người dùng hiện đang xác thực.
      * @throws IllegalStateException Nếu mật khẩu hiện tại không đúng hoặc mật khẩu mới không trùng khớp.
      */
+    @Transactional
     public void changePassword(ChangePasswordRequest request, Principal connectedUser) {
-        // 1. Lấy thông tin người dùng từ đối tượng Principal
-        var user = (User) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal();
+        // 1. Khóa dòng của người dùng trên primary: principal có thể lấy từ cache hoặc replica chưa cập nhật
+        LockedUser user = lock(currentUserId(connectedUser));
 
         // 2. Kiểm tra xem mật khẩu hiện tại có đúng không
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.password())) {
+            securityEventPublisher.publish(SecurityEventType.PASSWORD_CHANGE_FAILURE, user.id(), user.email(), "WrongCurrentPassword");
             throw new IllegalStateException("Mật khẩu hiện tại không đúng");
         }
 
         // 3. Kiểm tra xem mật khẩu mới và xác nhận mật khẩu mới có trùng khớp không
         if (!request.getNewPassword().equals(request.getConfirmationPassword())) {
+            securityEventPublisher.publish(SecurityEventType.PASSWORD_CHANGE_FAILURE, user.id(), user.email(), "ConfirmationMismatch");
             throw new IllegalStateException("Mật khẩu mới và xác nhận mật khẩu mới không trùng khớp");
         }
 
-        // 4. Mã hóa mật khẩu mới và cập nhật vào đối tượng người dùng
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        // Mật khẩu mới nằm trong danh sách bị lộ
+        if (breachedPasswordChecker.isBreached(request.getNewPassword())) {
+            securityEventPublisher.publish(SecurityEventType.PASSWORD_CHANGE_FAILURE, user.id(), user.email(), "BreachedPassword");
+            throw new BreachedPasswordException(ExceptionMessage.PASSWORD_BREACHED);
+        }
+
+        // 4. Chỉ cập nhật mật khẩu và tăng token epoch (thu hồi mọi token đã cấp), không ghi đè các cột khác
+        jdbcTemplate.update("UPDATE user SET password = ?, token_epoch = token_epoch + 1, last_modified_date = ?,"
+                        + " last_modified_by = ? WHERE id = ?",
+                passwordEncoder.encode(request.getNewPassword()), Timestamp.from(Instant.now()), user.id(), user.id());
+
+        // 5. Ghi nhật ký thay đổi trong cùng transaction để các node khác xóa cache
+        userChangeLogService.recordAll(List.of(user.changed(UserChangeType.PASSWORD_CHANGED)));
+        securityEventPublisher.publish(SecurityEventType.PASSWORD_CHANGED, user.id(), user.email(), null);
+    }
+
+    /**
+     * Đăng xuất khỏi mọi thiết bị: tăng token epoch để mọi access token và refresh token đã cấp đều hết hiệu lực.
+     * @param connectedUser Đối tượng Principal của người dùng hiện đang xác thực.
+     */
+    @Transactional
+    public void revokeAllTokens(Principal connectedUser) {
+        LockedUser user = lock(currentUserId(connectedUser));
+        jdbcTemplate.update("UPDATE user SET token_epoch = token_epoch + 1, last_modified_date = ?, last_modified_by = ?"
+                + " WHERE id = ?", Timestamp.from(Instant.now()), user.id(), user.id());
+        userChangeLogService.recordAll(List.of(user.changed(UserChangeType.TOKENS_REVOKED)));
+    }
+
+    /**
+     * Dòng người dùng đọc trong transaction ghi, kèm khóa (SELECT ... FOR UPDATE).
+     */
+    private record LockedUser(int id, String email, String password, String role, int tokenEpoch) {
+
+        // Sự kiện mang epoch sau khi tăng và vai trò hiện tại trong DB
+        UserChangedEvent changed(UserChangeType changeType) {
+            return new UserChangedEvent(id, email, changeType, role, tokenEpoch + 1);
+        }
+    }
+
+    private LockedUser lock(int userId) {
+        return jdbcTemplate.queryForObject("SELECT id, email, password, role, token_epoch FROM user WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> new LockedUser(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5)),
+                userId);
+    }
 
-        // 5. Lưu thông tin người dùng đã được cập nhật vào cơ sở dữ liệu
-        repository.save(user);
+    private static int currentUserId(Principal connectedUser) {
+        return ((UserDetail) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal()).getUser().getId();
     }
 
 }
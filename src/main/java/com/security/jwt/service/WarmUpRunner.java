@@ -0,0 +1,217 @@
+package com.security.jwt.service;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.SecurityEventType;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.security.AuthorizationSnapshot;
+import com.security.jwt.security.JwtService;
+import com.security.jwt.security.PermissionMask;
+import com.security.jwt.security.RoleRegistry;
+import com.security.jwt.security.UserDetail;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Làm nóng node mới khởi động trước khi nhận traffic: chạy các đường nóng (tạo/kiểm tra JWT, tra quyền trong
+ * snapshot, BCrypt) đủ nhiều để JIT biên dịch, mở sẵn connection trong pool và tùy chọn nạp trước người dùng
+ * hoạt động nhiều nhất vào cache. Readiness được giữ ở REFUSING_TRAFFIC trong suốt quá trình; Spring Boot chỉ
+ * chuyển sang ACCEPTING_TRAFFIC sau khi mọi ApplicationRunner chạy xong, nên load balancer không gửi request
+ * vào node đang lạnh. Lỗi trong lúc làm nóng chỉ được ghi log, không chặn khởi động.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private final JwtService jwtService;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final FriendshipService friendshipService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.warm-up.token-iterations:5000}")
+    private int tokenIterations;
+
+    @Value("${application.warm-up.password-iterations:10}")
+    private int passwordIterations;
+
+    @Value("${application.warm-up.pool-connections:10}")
+    private int poolConnections;
+
+    @Value("${application.warm-up.active-users:0}")
+    private int activeUsers;
+
+    @Value("${application.warm-up.active-users-window:1d}")
+    private Duration activeUsersWindow;
+
+    public WarmUpRunner(JwtService jwtService, RoleRegistry roleRegistry, PasswordEncoder passwordEncoder,
+                        DataSource dataSource, JdbcTemplate jdbcTemplate, UserRepository userRepository,
+                        FriendshipService friendshipService, ApplicationEventPublisher eventPublisher) {
+        this.jwtService = jwtService;
+        this.roleRegistry = roleRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.friendshipService = friendshipService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        step("jwt", this::warmUpTokens);
+        step("authorization", this::warmUpAuthorization);
+        step("password", this::warmUpPasswordEncoder);
+        step("connection-pool", this::fillConnectionPool);
+        if (activeUsers > 0) {
+            step("active-users", this::preloadActiveUsers);
+        }
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void step(String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+            log.debug("Warm-up step {} took {} ms", name, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Warm-up step {} failed: {}", name, e.toString());
+        }
+    }
+
+    // Người dùng giả không có id: bỏ qua tra token epoch, không cần dữ liệu thật
+    private void warmUpTokens() {
+        AuthorizationSnapshot.CompiledRole role = roleRegistry.current().roles().iterator().next();
+        UserDetail user = new UserDetail(User.builder()
+                .email("warm-up@localhost")
+                .role(role.name())
+                .build(), role);
+        for (int i = 0; i < tokenIterations; i++) {
+            String token = jwtService.generateToken(user);
+            jwtService.isTokenValid(token, user);
+            jwtService.extractUsername(token);
+            jwtService.extractPermissions(token);
+            jwtService.isTokenValid(jwtService.generateRefreshToken(user), user);
+        }
+    }
+
+    private void warmUpAuthorization() {
+        AuthorizationSnapshot snapshot = roleRegistry.current();
+        for (int i = 0; i < tokenIterations; i++) {
+            for (AuthorizationSnapshot.CompiledRole role : snapshot.roles()) {
+                snapshot.role(role.name()).authorities().size();
+                role.hasPermission(i & 63);
+                snapshot.permissionNames(PermissionMask.decode(role.permissionMask()));
+            }
+        }
+    }
+
+    private void warmUpPasswordEncoder() {
+        String hash = passwordEncoder.encode("warm-up-password");
+        for (int i = 0; i < passwordIterations; i++) {
+            passwordEncoder.matches("warm-up-password", hash);
+        }
+    }
+
+    /**
+     * Giữ đồng thời nhiều connection để mỗi pool mở đủ, thay vì mở dần lúc request thật đầu tiên tới.
+     * Khi tách đọc/ghi, DataSource chính là LazyConnectionDataSourceProxy bọc routing DataSource: lấy connection
+     * qua nó chỉ tạo proxy chưa mở connection thật, và nếu có thì luôn đi tới primary. Vì vậy làm nóng trực tiếp
+     * từng pool đích (primary và mọi replica); pool lỗi (replica chưa sẵn sàng) không cản các pool còn lại.
+     */
+    private void fillConnectionPool() {
+        for (DataSource pool : targetPools(dataSource)) {
+            try {
+                fill(pool);
+            } catch (SQLException e) {
+                log.warn("Warm-up of connection pool {} failed: {}", poolName(pool), e.toString());
+            }
+        }
+    }
+
+    private static Collection<DataSource> targetPools(DataSource dataSource) {
+        DataSource target = dataSource;
+        while (target instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            target = delegating.getTargetDataSource();
+        }
+        if (target instanceof AbstractRoutingDataSource routing) {
+            return new LinkedHashSet<>(routing.getResolvedDataSources().values());
+        }
+        return List.of(target);
+    }
+
+    private void fill(DataSource pool) throws SQLException {
+        int count = pool instanceof HikariDataSource hikari
+                ? Math.min(poolConnections, hikari.getMaximumPoolSize())
+                : poolConnections;
+        List<Connection> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = pool.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // connection trả về pool, lỗi đóng không ảnh hưởng khởi động
+                }
+            }
+        }
+    }
+
+    private static String poolName(DataSource pool) {
+        return pool instanceof HikariDataSource hikari ? hikari.getPoolName() : pool.toString();
+    }
+
+    // Người dùng đăng nhập nhiều nhất gần đây: nạp User vào second-level cache và danh sách bạn bè vào cache local
+    private void preloadActiveUsers() {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT user_id FROM security_event WHERE event_type = ? AND user_id IS NOT NULL AND occurred_at > ?"
+                        + " GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT ?",
+                Integer.class,
+                SecurityEventType.LOGIN_SUCCESS.name(),
+                Timestamp.from(Instant.now().minus(activeUsersWindow)),
+                activeUsers);
+        userRepository.findAllById(ids);
+        ids.forEach(friendshipService::friendIds);
+        log.info("Warm-up preloaded {} active users", ids.size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.security.jwt.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter cho chuỗi trên mảng bit nguyên thủy. {@link #mightContain} trả về false nghĩa là
+ * chắc chắn chưa từng thêm; true có thể là dương tính giả với xác suất khoảng {@code falsePositiveRate}.
+ * Thêm và tra cứu đồng thời an toàn (cập nhật bit bằng CAS).
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(expectedInsertions, 1);
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min((m + 63) >>> 6, Integer.MAX_VALUE - 8);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = StringHash.hash64(value);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = StringHash.hash64(value);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+}
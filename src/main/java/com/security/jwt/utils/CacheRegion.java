@@ -0,0 +1,81 @@
+package com.security.jwt.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Một vùng cache có kiểu (typed), bị giới hạn kích thước và có thời gian hết hạn.
+ * Được tạo thông qua {@link MyCache#region(String)} hoặc {@link MyCache#loadingRegion}.
+ */
+public final class CacheRegion<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+
+    CacheRegion(String name, Cache<K, V> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Lấy giá trị, nếu chưa có thì tính bằng loader. Các luồng cùng key sẽ chờ một lần tính duy nhất.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return cache.get(key, loader);
+    }
+
+    /**
+     * Lấy giá trị bằng loader đã đăng ký cho region (chỉ dùng với region tạo bởi loadingRegion).
+     */
+    public V load(K key) {
+        if (!(cache instanceof LoadingCache<K, V> loadingCache)) {
+            throw new IllegalStateException("Cache region " + name + " không có loader");
+        }
+        return loadingCache.get(key);
+    }
+
+    boolean isLoading() {
+        return cache instanceof LoadingCache;
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    public void evict(K key) {
+        cache.invalidate(key);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Cập nhật nguyên tử (atomic) giá trị của key. Trả về null từ hàm sẽ xóa key khỏi cache.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return cache.asMap().compute(key, remappingFunction);
+    }
+
+    /**
+     * Cập nhật nguyên tử giá trị của key chỉ khi key đang tồn tại trong cache.
+     */
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return cache.asMap().computeIfPresent(key, remappingFunction);
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,128 @@
+package com.security.jwt.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Giới hạn số request xử lý đồng thời, tự điều chỉnh theo độ trễ đo được (thuật toán gradient, kiểu TCP Vegas).
+ * Sau mỗi cửa sổ mẫu, độ trễ ngắn hạn (trung bình cửa sổ) được so với độ trễ dài hạn (trung bình trượt):
+ * <pre>
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ *   newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * Độ trễ tăng (hàng đợi bắt đầu hình thành) thì gradient &lt; 1 và giới hạn giảm; độ trễ ổn định thì giới hạn
+ * tăng thêm sqrt(limit). Giới hạn chỉ tăng khi tải thực sự dùng tới hơn nửa giới hạn, tránh nới vô hạn lúc rảnh.
+ * Đường nhanh (acquire/release) chỉ dùng thao tác atomic; việc tính lại giới hạn chạy trên một luồng mỗi cửa sổ.
+ */
+public class GradientLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final int windowSize;
+    private final double longRttFactor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicLong rttSum = new AtomicLong();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    // Chỉ đọc/ghi khi giữ updateLock
+    private double longRtt;
+
+    /**
+     * @param windowSize Số mẫu mỗi lần tính lại giới hạn.
+     * @param longWindow Số cửa sổ của trung bình trượt độ trễ dài hạn.
+     * @param smoothing Tỷ lệ giới hạn mới được áp dụng mỗi lần (0..1], nhỏ thì thay đổi chậm và ổn định hơn.
+     * @param tolerance Độ trễ ngắn hạn được phép gấp bao nhiêu lần dài hạn trước khi giảm giới hạn.
+     */
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, int windowSize, int longWindow,
+                           double smoothing, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (windowSize < 1 || longWindow < 1 || smoothing <= 0 || smoothing > 1 || tolerance < 1) {
+            throw new IllegalArgumentException("Invalid window, smoothing or tolerance");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.longRttFactor = 2.0 / (longWindow + 1);
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return true nếu được nhận; khi đó bắt buộc gọi {@link #release(long)} đúng một lần.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        maxInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    /**
+     * @param rttNanos Thời gian xử lý request đã được nhận.
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        rttSum.addAndGet(Math.max(1, rttNanos));
+        if (samples.incrementAndGet() >= windowSize && updateLock.tryLock()) {
+            try {
+                // Kiểm tra lại trong lock: luồng khác có thể vừa tính xong cửa sổ này
+                int count = samples.get();
+                if (count >= windowSize) {
+                    update(count);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void update(int count) {
+        double shortRtt = (double) rttSum.getAndSet(0) / count;
+        samples.addAndGet(-count);
+        int peakInFlight = maxInFlight.getAndSet(inFlight.get());
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * longRttFactor;
+        }
+        // Độ trễ ngắn hạn giảm hẳn (hết quá tải): kéo mốc dài hạn xuống nhanh để giới hạn hồi phục
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = current * gradient + Math.sqrt(current);
+        if (peakInFlight < current / 2) {
+            newLimit = Math.min(newLimit, current);
+        }
+        newLimit = current * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
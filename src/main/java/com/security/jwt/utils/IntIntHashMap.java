@@ -0,0 +1,127 @@
+package com.security.jwt.utils;
+
+import java.util.Arrays;
+
+/**
+ * Bảng băm int -> int dùng open addressing (linear probing) trên hai mảng nguyên thủy,
+ * không boxing và không tạo object cho mỗi phần tử. Không thread-safe: chia sẻ giữa các luồng thì
+ * chỉ đọc sau khi công bố an toàn, mọi thay đổi làm trên bản sao.
+ */
+public class IntIntHashMap {
+
+    private static final int FREE_KEY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int threshold;
+    private int mask;
+
+    // Key 0 được dùng làm ô trống nên lưu riêng
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        allocate(capacity);
+    }
+
+    /**
+     * Bản sao độc lập của bảng nguồn (dùng cho copy-on-write).
+     */
+    public IntIntHashMap(IntIntHashMap source) {
+        keys = source.keys.clone();
+        values = source.values.clone();
+        size = source.size;
+        threshold = source.threshold;
+        mask = source.mask;
+        hasFreeKey = source.hasFreeKey;
+        freeKeyValue = source.freeKeyValue;
+    }
+
+    public int get(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int index = indexOf(key);
+        while (true) {
+            int current = keys[index];
+            if (current == FREE_KEY) {
+                return defaultValue;
+            }
+            if (current == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                size++;
+            }
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+        int index = indexOf(key);
+        while (true) {
+            int current = keys[index];
+            if (current == FREE_KEY) {
+                keys[index] = key;
+                values[index] = value;
+                if (++size >= threshold) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+            if (current == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    private int indexOf(int key) {
+        // Trộn bit để các id liên tiếp không dồn vào cùng một cụm
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        size = hasFreeKey ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(capacity, 8);
+    }
+}
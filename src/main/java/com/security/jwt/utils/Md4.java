@@ -0,0 +1,68 @@
+package com.security.jwt.utils;
+
+/**
+ * MD4 (RFC 1320), chỉ dùng để tính NTLM hash = MD4(UTF-16LE(mật khẩu)) khi tra danh sách mật khẩu bị lộ
+ * dạng NTLM; JDK không đăng ký MD4 trong MessageDigest. Không dùng cho mục đích bảo mật nào khác.
+ */
+public final class Md4 {
+
+    private Md4() {
+    }
+
+    public static byte[] digest(byte[] input) {
+        int a = 0x67452301, b = 0xefcdab89, c = 0x98badcfe, d = 0x10325476;
+
+        // Đệm: bit 1, các bit 0, độ dài (bit) 64 bit little-endian, tổng độ dài bội số của 64 byte
+        int paddedLength = ((input.length + 8) / 64 + 1) * 64;
+        byte[] message = new byte[paddedLength];
+        System.arraycopy(input, 0, message, 0, input.length);
+        message[input.length] = (byte) 0x80;
+        long bitLength = (long) input.length * 8;
+        for (int i = 0; i < 8; i++) {
+            message[paddedLength - 8 + i] = (byte) (bitLength >>> (8 * i));
+        }
+
+        int[] x = new int[16];
+        for (int block = 0; block < paddedLength; block += 64) {
+            for (int i = 0; i < 16; i++) {
+                int p = block + i * 4;
+                x[i] = (message[p] & 0xff) | (message[p + 1] & 0xff) << 8
+                        | (message[p + 2] & 0xff) << 16 | (message[p + 3] & 0xff) << 24;
+            }
+            int aa = a, bb = b, cc = c, dd = d;
+
+            for (int i : new int[]{0, 4, 8, 12}) {
+                a = Integer.rotateLeft(a + ((b & c) | (~b & d)) + x[i], 3);
+                d = Integer.rotateLeft(d + ((a & b) | (~a & c)) + x[i + 1], 7);
+                c = Integer.rotateLeft(c + ((d & a) | (~d & b)) + x[i + 2], 11);
+                b = Integer.rotateLeft(b + ((c & d) | (~c & a)) + x[i + 3], 19);
+            }
+            for (int i : new int[]{0, 1, 2, 3}) {
+                a = Integer.rotateLeft(a + ((b & c) | (b & d) | (c & d)) + x[i] + 0x5a827999, 3);
+                d = Integer.rotateLeft(d + ((a & b) | (a & c) | (b & c)) + x[i + 4] + 0x5a827999, 5);
+                c = Integer.rotateLeft(c + ((d & a) | (d & b) | (a & b)) + x[i + 8] + 0x5a827999, 9);
+                b = Integer.rotateLeft(b + ((c & d) | (c & a) | (d & a)) + x[i + 12] + 0x5a827999, 13);
+            }
+            for (int i : new int[]{0, 2, 1, 3}) {
+                a = Integer.rotateLeft(a + (b ^ c ^ d) + x[i] + 0x6ed9eba1, 3);
+                d = Integer.rotateLeft(d + (a ^ b ^ c) + x[i + 8] + 0x6ed9eba1, 9);
+                c = Integer.rotateLeft(c + (d ^ a ^ b) + x[i + 4] + 0x6ed9eba1, 11);
+                b = Integer.rotateLeft(b + (c ^ d ^ a) + x[i + 12] + 0x6ed9eba1, 15);
+            }
+
+            a += aa;
+            b += bb;
+            c += cc;
+            d += dd;
+        }
+
+        byte[] digest = new byte[16];
+        int[] state = {a, b, c, d};
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                digest[i * 4 + j] = (byte) (state[i] >>> (8 * j));
+            }
+        }
+        return digest;
+    }
+}
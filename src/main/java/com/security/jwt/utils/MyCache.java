@@ -1,17 +1,59 @@
 package com.security.jwt.utils;
 
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.security.jwt.config.CacheRegionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Quản lý các vùng cache có kiểu, giới hạn kích thước, có TTL và được đo đạc (hit/miss/eviction)
+ * qua actuator metrics. Các phương thức cũ vẫn hoạt động trên region mặc định "myCache".
+ */
 @Component
-@EnableCaching
 public class MyCache {
-    private final Cache cache;
 
-    public MyCache(CacheManager cacheManager) {
-        this.cache = cacheManager.getCache("myCache");
+    public static final String DEFAULT_REGION = "myCache";
+
+    private final CaffeineCacheManager cacheManager;
+    private final CacheRegionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CacheRegion<?, ?>> regions = new ConcurrentHashMap<>();
+    private final CacheRegion<String, Object> cache;
+
+    public MyCache(CaffeineCacheManager cacheManager, CacheRegionProperties properties, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.cache = region(DEFAULT_REGION);
+    }
+
+    /**
+     * Lấy (hoặc tạo) một region theo tên, cấu hình lấy từ application.cache.regions.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> CacheRegion<K, V> region(String name) {
+        return (CacheRegion<K, V>) regions.computeIfAbsent(name, n -> createRegion(n, null));
+    }
+
+    /**
+     * Lấy (hoặc tạo) một region có loader. Nếu region cấu hình refresh-after-write thì giá trị
+     * sẽ được làm mới bất đồng bộ trong khi các request vẫn đọc giá trị cũ (refresh-ahead).
+     * Region đã tồn tại thì giữ loader của lần tạo đầu tiên.
+     * @throws IllegalStateException nếu region cùng tên đã được tạo không có loader qua {@link #region(String)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> CacheRegion<K, V> loadingRegion(String name, CacheLoader<K, V> loader) {
+        CacheRegion<K, V> region = (CacheRegion<K, V>) regions.computeIfAbsent(name, n -> createRegion(n, loader));
+        if (!region.isLoading()) {
+            throw new IllegalStateException("Cache region " + name + " đã được tạo không có loader");
+        }
+        return region;
     }
 
     public void saveToCache(String key, Object value) {
@@ -19,16 +61,45 @@ public class MyCache {
     }
 
     public Object getFromCache(String key) {
-        Cache.ValueWrapper wrapper = cache.get(key);
-        return (wrapper != null) ? wrapper.get() : null;
+        return cache.get(key);
     }
+
     public void deleteFromCache(String key) {
         cache.evict(key);
     }
 
     public void updateCache(String key, Object value) {
-        if (cache.get(key) != null) {
-            cache.put(key, value);
+        // Cập nhật nguyên tử, tránh race condition giữa get và put
+        cache.computeIfPresent(key, (k, oldValue) -> value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> CacheRegion<K, V> createRegion(String name, CacheLoader<K, V> loader) {
+        CacheRegionProperties.Region config = properties.forRegion(name);
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .recordStats();
+        if (config.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(config.getExpireAfterWrite());
         }
+        if (config.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(config.getExpireAfterAccess());
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<K, V> nativeCache;
+        if (loader != null) {
+            if (config.getRefreshAfterWrite() != null) {
+                builder.refreshAfterWrite(config.getRefreshAfterWrite());
+            }
+            nativeCache = builder.build(loader);
+        } else {
+            nativeCache = builder.build();
+        }
+
+        // Đăng ký với CacheManager để @Cacheable và actuator /caches nhìn thấy region này
+        cacheManager.registerCustomCache(name, (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache);
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, name);
+        return new CacheRegion<>(name, nativeCache);
     }
 }
@@ -0,0 +1,151 @@
+package com.security.jwt.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File nhị phân chứa 8 byte đầu (64 bit) của các hash đã sắp xếp tăng dần, được memory-map và tìm kiếm trực tiếp
+ * trên vùng map (không chép vào heap). Hash mật mã phân bố đều nên tìm bằng nội suy chỉ cần vài lần đọc
+ * kể cả với hàng trăm triệu bản ghi; 64 bit đủ để xác suất trùng ngẫu nhiên không đáng kể.
+ * <pre>
+ *   header 32 byte: magic "BPWD" | version (int) | loại hash (int) | 0 (int) | số bản ghi (long) | 0 (long)
+ *   bản ghi: long big-endian không dấu, tăng dần, không trùng
+ * </pre>
+ * File lớn hơn 2 GB được map thành nhiều đoạn (MappedByteBuffer giới hạn 2 GB). Đọc đồng thời an toàn
+ * vì chỉ dùng get tuyệt đối.
+ */
+public final class SortedHashFile implements Closeable {
+
+    public static final int MAGIC = 0x42505744;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = Long.BYTES;
+
+    public enum HashType {
+        SHA1(1), NTLM(2);
+
+        private final int code;
+
+        HashType(int code) {
+            this.code = code;
+        }
+
+        public int code() {
+            return code;
+        }
+
+        public static HashType of(int code) {
+            for (HashType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown hash type " + code);
+        }
+    }
+
+    // 2^27 bản ghi (1 GB) mỗi đoạn map
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    // Khoảng đủ nhỏ thì chuyển sang tìm nhị phân
+    private static final int BINARY_THRESHOLD = 64;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final HashType hashType;
+    private final long count;
+
+    private SortedHashFile(FileChannel channel, MappedByteBuffer[] segments, HashType hashType, long count) {
+        this.channel = channel;
+        this.segments = segments;
+        this.hashType = hashType;
+        this.count = count;
+    }
+
+    public static SortedHashFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.read(header, 0) < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a sorted hash file: " + path);
+            }
+            HashType hashType = HashType.of(header.getInt(8));
+            long count = header.getLong(16);
+            if (channel.size() != HEADER_SIZE + count * RECORD_SIZE) {
+                throw new IOException("Truncated sorted hash file: " + path);
+            }
+            int segmentCount = (int) ((count + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long records = Math.min(count - first, 1L << SEGMENT_SHIFT);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+            }
+            return new SortedHashFile(channel, segments, hashType, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public HashType getHashType() {
+        return hashType;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * @param hash 8 byte đầu của hash, big-endian.
+     */
+    public boolean contains(long hash) {
+        long target = hash ^ Long.MIN_VALUE;
+        long lo = 0;
+        long hi = count - 1;
+        while (lo <= hi) {
+            long loKey = key(lo);
+            long hiKey = key(hi);
+            if (target < loKey || target > hiKey) {
+                return false;
+            }
+            if (target == loKey || target == hiKey) {
+                return true;
+            }
+            long mid;
+            if (hi - lo < BINARY_THRESHOLD) {
+                mid = (lo + hi) >>> 1;
+            } else {
+                // Nội suy theo giá trị; tính bằng double để không tràn số khi trừ hai long
+                double fraction = ((double) target - (double) loKey) / ((double) hiKey - (double) loKey);
+                mid = lo + (long) (fraction * (hi - lo));
+                mid = Math.max(lo + 1, Math.min(hi - 1, mid));
+            }
+            long midKey = key(mid);
+            if (midKey == target) {
+                return true;
+            }
+            if (midKey < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    // Đảo bit dấu để so sánh có dấu cho kết quả như so sánh không dấu
+    private long key(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) * RECORD_SIZE) ^ Long.MIN_VALUE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
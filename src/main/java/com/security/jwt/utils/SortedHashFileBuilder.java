@@ -0,0 +1,104 @@
+package com.security.jwt.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Công cụ offline chuyển bản dump dạng text của danh sách mật khẩu bị lộ (mỗi dòng "HASH:SỐ_LẦN", ví dụ bản
+ * "ordered by hash" của Pwned Passwords cho SHA-1 hoặc NTLM) thành {@link SortedHashFile}. Đầu vào phải đã sắp xếp
+ * theo hash nên chỉ đọc tuần tự một lần, bộ nhớ dùng không đổi dù có hàng trăm triệu dòng.
+ * <pre>
+ *   java -cp jwt.jar -Dloader.main=com.security.jwt.utils.SortedHashFileBuilder org.springframework.boot.loader.launch.PropertiesLauncher \
+ *       pwned-passwords-sha1-ordered-by-hash.txt breached-sha1.bin SHA1 [số_lần_tối_thiểu]
+ * </pre>
+ */
+public final class SortedHashFileBuilder {
+
+    private SortedHashFileBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SortedHashFileBuilder <input.txt> <output.bin> <SHA1|NTLM> [min-count]");
+            System.exit(2);
+        }
+        SortedHashFile.HashType hashType = SortedHashFile.HashType.valueOf(args[2].toUpperCase());
+        long minCount = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        long start = System.nanoTime();
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.US_ASCII)) {
+            long written = build(reader, Path.of(args[1]), hashType, minCount);
+            System.out.printf("Wrote %d hashes to %s in %d s%n", written, args[1], (System.nanoTime() - start) / 1_000_000_000L);
+        }
+    }
+
+    /**
+     * @return Số hash đã ghi.
+     */
+    public static long build(Reader input, Path output, SortedHashFile.HashType hashType, long minCount) throws IOException {
+        long count = 0;
+        long previous = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+             OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 20))) {
+            // Header tạm, ghi lại số bản ghi khi xong
+            out.write(new byte[SortedHashFile.HEADER_SIZE]);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                if (colon >= 0 && minCount > 1 && Long.parseLong(line.substring(colon + 1).trim()) < minCount) {
+                    continue;
+                }
+                String hex = colon >= 0 ? line.substring(0, colon) : line;
+                if (hex.length() < 16) {
+                    throw new IOException("Line " + lineNumber + ": hash too short");
+                }
+                long hash = Long.parseUnsignedLong(hex.substring(0, 16), 16);
+                if (count > 0) {
+                    int order = Long.compareUnsigned(hash, previous);
+                    if (order < 0) {
+                        throw new IOException("Line " + lineNumber + ": input is not sorted by hash");
+                    }
+                    if (order == 0) {
+                        // Hai hash khác nhau trùng 64 bit đầu
+                        continue;
+                    }
+                }
+                out.writeLong(hash);
+                previous = hash;
+                count++;
+            }
+        }
+        writeHeader(output, hashType, count);
+        return count;
+    }
+
+    private static void writeHeader(Path output, SortedHashFile.HashType hashType, long count) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SortedHashFile.HEADER_SIZE);
+        header.putInt(SortedHashFile.MAGIC)
+                .putInt(SortedHashFile.VERSION)
+                .putInt(hashType.code())
+                .putInt(0)
+                .putLong(count)
+                .putLong(0)
+                .flip();
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+        }
+    }
+}
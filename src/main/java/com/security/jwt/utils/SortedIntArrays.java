@@ -0,0 +1,52 @@
+package com.security.jwt.utils;
+
+import java.util.Arrays;
+
+/**
+ * Thao tác trên mảng int đã sắp xếp tăng dần, không trùng lặp.
+ */
+public final class SortedIntArrays {
+
+    private SortedIntArrays() {
+    }
+
+    public static boolean contains(int[] sorted, int value) {
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    /**
+     * Giao của hai mảng bằng cách duyệt song song, O(n + m). Khi một mảng nhỏ hơn nhiều
+     * thì tìm nhị phân từng phần tử của mảng nhỏ trong mảng lớn, O(n log m).
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            int[] swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] result = new int[a.length];
+        int size = 0;
+        if ((long) a.length * 32 < b.length) {
+            for (int value : a) {
+                if (Arrays.binarySearch(b, value) >= 0) {
+                    result[size++] = value;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[size++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
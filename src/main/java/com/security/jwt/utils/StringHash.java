@@ -0,0 +1,32 @@
+package com.security.jwt.utils;
+
+/**
+ * Hàm băm 64 bit không mã hóa cho chuỗi: FNV-1a trên các ký tự, trộn thêm bằng bước finalizer của MurmurHash3.
+ * Truyền seed ngẫu nhiên khi cần chống việc tạo va chạm có chủ đích từ bên ngoài.
+ */
+public final class StringHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StringHash() {
+    }
+
+    public static long hash64(CharSequence value) {
+        return hash64(value, 0);
+    }
+
+    public static long hash64(CharSequence value, long seed) {
+        long h = FNV_OFFSET_BASIS ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
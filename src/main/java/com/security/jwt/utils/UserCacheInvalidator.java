@@ -0,0 +1,51 @@
+package com.security.jwt.utils;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.event.UserChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Xóa các key của người dùng (email và id) khỏi những cache region được cấu hình
+ * và khỏi second-level cache của Hibernate mỗi khi người dùng thay đổi.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    private final MyCache myCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<String> regions;
+
+    public UserCacheInvalidator(MyCache myCache,
+                                EntityManagerFactory entityManagerFactory,
+                                @Value("${application.cache.invalidation.regions:}") List<String> regions) {
+        this.myCache = myCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.regions = regions;
+    }
+
+    /**
+     * Với thay đổi trên node hiện tại thì chạy sau khi commit; với thay đổi đọc từ nhật ký thì chạy ngay.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        for (String region : regions) {
+            CacheRegion<Object, Object> cache = myCache.region(region);
+            if (event.email() != null) {
+                cache.evict(event.email());
+            }
+            if (event.userId() != null) {
+                cache.evict(event.userId());
+            }
+        }
+
+        // Node ghi đã tự cập nhật second-level cache; node khác cần xóa bản cũ
+        if (event.userId() != null) {
+            entityManagerFactory.getCache().evict(User.class, event.userId());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.security.jwt.auditing;
+
+import com.security.jwt.auditing.SecurityEventPublisher.OverflowPolicy;
+import com.security.jwt.enum_constant.SecurityEventType;
+import com.security.jwt.event.SecurityEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityEventPublisherTest {
+
+    /**
+     * Ghi vào bộ nhớ: kích thước từng lô, chi tiết sự kiện và cờ interrupt của luồng ghi tại thời điểm ghi.
+     */
+    private static class RecordingWriter extends SecurityEventJdbcWriter {
+
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final List<String> details = new CopyOnWriteArrayList<>();
+        final List<Boolean> interruptedDuringWrite = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        volatile CountDownLatch release;
+
+        RecordingWriter() {
+            super(null);
+        }
+
+        @Override
+        public void write(List<SecurityEvent> events) {
+            firstWriteStarted.countDown();
+            awaitReleaseUninterruptibly();
+            interruptedDuringWrite.add(Thread.currentThread().isInterrupted());
+            batchSizes.add(events.size());
+            events.forEach(event -> details.add(event.detail()));
+        }
+
+        // Mô phỏng câu INSERT đang chạy khi stop() interrupt luồng: chờ hết rồi giữ nguyên cờ interrupt
+        private void awaitReleaseUninterruptibly() {
+            CountDownLatch latch = release;
+            if (latch == null) {
+                return;
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            release = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SecurityEventPublisher publisher(RecordingWriter writer, int capacity, OverflowPolicy policy) {
+        return new SecurityEventPublisher(writer, meterRegistry, capacity, policy, Duration.ofMillis(1), 200,
+                Duration.ofSeconds(10));
+    }
+
+    private static void publish(SecurityEventPublisher publisher, int from, int to) {
+        for (int i = from; i < to; i++) {
+            publisher.publish(SecurityEventType.LOGIN_SUCCESS, i, "user" + i + "@example.com", String.valueOf(i));
+        }
+    }
+
+    @Test
+    void queuedEventsAreWrittenInBatchesOfAtMostBatchSize() {
+        RecordingWriter writer = new RecordingWriter();
+        SecurityEventPublisher publisher = publisher(writer, 1000, OverflowPolicy.DROP_NEWEST);
+        publish(publisher, 0, 450);
+
+        publisher.start();
+        publisher.stop();
+
+        assertThat(writer.batchSizes).containsExactly(200, 200, 50);
+        assertThat(writer.details).hasSize(450).startsWith("0", "1").endsWith("449");
+    }
+
+    @Test
+    void overflowPoliciesDropNewestOrOldest() {
+        RecordingWriter newestWriter = new RecordingWriter();
+        SecurityEventPublisher dropNewest = publisher(newestWriter, 2, OverflowPolicy.DROP_NEWEST);
+        publish(dropNewest, 0, 5);
+        dropNewest.start();
+        dropNewest.stop();
+
+        RecordingWriter oldestWriter = new RecordingWriter();
+        SecurityEventPublisher dropOldest = publisher(oldestWriter, 2, OverflowPolicy.DROP_OLDEST);
+        publish(dropOldest, 0, 5);
+        dropOldest.start();
+        dropOldest.stop();
+
+        assertThat(newestWriter.details).containsExactly("0", "1");
+        assertThat(oldestWriter.details).containsExactly("3", "4");
+        assertThat(meterRegistry.counter("security.events.dropped").count()).isEqualTo(6);
+    }
+
+    @Test
+    void stopDuringWriteStillDrainsQueueWithoutInterruptFlag() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        writer.release = new CountDownLatch(1);
+        SecurityEventPublisher publisher = publisher(writer, 100, OverflowPolicy.DROP_NEWEST);
+        publisher.start();
+        publish(publisher, 0, 1);
+        assertThat(writer.firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // Các sự kiện này còn trong hàng đợi khi stop() interrupt luồng ghi
+        publish(publisher, 1, 6);
+        CountDownLatch release = writer.release;
+
+        Thread stopper = new Thread(publisher::stop);
+        stopper.start();
+        Thread.sleep(100);
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(15));
+
+        assertThat(publisher.isRunning()).isFalse();
+        assertThat(writer.details).containsExactly("0", "1", "2", "3", "4", "5");
+        assertThat(writer.interruptedDuringWrite).hasSize(2).endsWith(false);
+    }
+}
@@ -0,0 +1,42 @@
+package com.security.jwt.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceRoutingConfigTest {
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class PropertiesConfig {
+    }
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfig.class, DataSourceRoutingConfig.class)
+            .withPropertyValues(
+                    "application.datasource.routing.enabled=true",
+                    "spring.datasource.url=jdbc:h2:mem:routing-config",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.datasource.hikari.connection-timeout=1500");
+
+    @Test
+    void primaryPoolIsBoundToSpringHikariProperties() {
+        runner.run(context -> {
+            HikariDataSource primary = context.getBean(HikariDataSource.class);
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+            assertThat(primary.getConnectionTimeout()).isEqualTo(1500);
+            assertThat(primary.getPoolName()).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void configuredPoolNameOverridesDefault() {
+        runner.withPropertyValues("spring.datasource.hikari.pool-name=main")
+                .run(context -> assertThat(context.getBean(HikariDataSource.class).getPoolName()).isEqualTo("main"));
+    }
+}
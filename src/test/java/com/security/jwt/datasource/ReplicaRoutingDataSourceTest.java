@@ -0,0 +1,88 @@
+package com.security.jwt.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaNode replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate readWriteTx;
+    private ReplicaHealthChecker healthChecker;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replicaDataSource = database("replica");
+        replica = new ReplicaNode("replica", replicaDataSource);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        readWriteTx = new TransactionTemplate(transactionManager);
+        healthChecker = new ReplicaHealthChecker(List.of(replica), "SELECT lag_seconds FROM replication_lag", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertThat(serverNameIn(readOnlyTx)).isEqualTo("replica");
+        assertThat(serverNameIn(readWriteTx)).isEqualTo("primary");
+        // Ngoài transaction thì luôn là primary
+        assertThat(serverName()).isEqualTo("primary");
+    }
+
+    @Test
+    void primaryIsForcedForReadYourWrites() {
+        String server = ReplicaRoutingContext.onPrimary(() -> serverNameIn(readOnlyTx));
+        assertThat(server).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        new JdbcTemplate(replica.getDataSource()).update("UPDATE replication_lag SET lag_seconds = 30");
+        healthChecker.check();
+        assertThat(replica.isHealthy()).isFalse();
+        assertThat(serverNameIn(readOnlyTx)).isEqualTo("primary");
+
+        new JdbcTemplate(replica.getDataSource()).update("UPDATE replication_lag SET lag_seconds = 1");
+        healthChecker.check();
+        assertThat(replica.isHealthy()).isTrue();
+        assertThat(replica.getLagMillis()).isEqualTo(1000);
+        assertThat(serverNameIn(readOnlyTx)).isEqualTo("replica");
+    }
+
+    private String serverNameIn(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> serverName());
+    }
+
+    private String serverName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server_name", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE server_name (name VARCHAR(32))");
+        jdbc.update("INSERT INTO server_name VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replication_lag (lag_seconds INT)");
+        jdbc.update("INSERT INTO replication_lag VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,71 @@
+package com.security.jwt.jfr;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.repository.PermissionDefinitionRepository;
+import com.security.jwt.repository.RoleDefinitionRepository;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.security.JwtService;
+import com.security.jwt.security.RoleRegistry;
+import com.security.jwt.security.TokenEpochRegistry;
+import com.security.jwt.security.UserDetail;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AuthEventsTest {
+
+    @Test
+    void tokenEventsAreRecordedWithHashedIdentifiers(@TempDir Path dir) throws Exception {
+        JwtService jwtService = new JwtService(new TokenEpochRegistry(mock(UserRepository.class)),
+                new RoleRegistry(mock(RoleDefinitionRepository.class), mock(PermissionDefinitionRepository.class),
+                        mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "profile", JwtService.TokenProfile.STANDARD);
+        UserDetail user = new UserDetail(User.builder().id(1).email("jfr@example.com").role(Role.USER.name()).build());
+
+        Path file = dir.resolve("auth.jfr");
+        try (Reader reader = new InputStreamReader(new ClassPathResource("jfr/auth.jfc").getInputStream(), StandardCharsets.UTF_8);
+             Recording recording = new Recording(Configuration.create(reader))) {
+            // Ghi mọi sự kiện, bỏ ngưỡng thời gian của file cấu hình
+            recording.enable(TokenIssuanceEvent.class).withThreshold(null);
+            recording.enable(TokenVerificationEvent.class).withThreshold(null);
+            recording.start();
+            String token = jwtService.generateToken(user);
+            assertThat(jwtService.isTokenValid(token, user)).isTrue();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent issuance = single(events, "com.security.jwt.TokenIssuance");
+        RecordedEvent verification = single(events, "com.security.jwt.TokenVerification");
+        assertThat(issuance.getString("tokenType")).isEqualTo("ACCESS");
+        assertThat(verification.getString("outcome")).isEqualTo("VALID");
+        assertThat(verification.getLong("userHash"))
+                .isEqualTo(issuance.getLong("userHash"))
+                .isEqualTo(AuthEvents.hash("jfr@example.com"));
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,251 @@
+package com.security.jwt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.security.jwt.dto.request.BulkRoleUpdateRequest;
+import com.security.jwt.dto.response.BulkRoleJobResponse;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.service.BulkRoleAssignmentService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test đầu-cuối trên H2 nhúng (profile test). Không chạy mặc định, chạy bằng:
+ * <pre>
+ * mvn test -Pload-test -Dloadtest.rate=300 -Dloadtest.duration=60s
+ * </pre>
+ * Request được gửi theo nhịp cố định (open-loop) và độ trễ tính từ thời điểm request lẽ ra được gửi,
+ * nên kết quả không bị coordinated omission khi server chậm lại.
+ * Kết quả (kèm số request theo HTTP status của từng loại) được ghi log và ghi vào target/load-test-report.txt.
+ */
+@Slf4j
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BulkRoleAssignmentService bulkRoleAssignmentService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(32))
+            .build();
+    private final AtomicLong userSequence = new AtomicLong();
+    private final List<SeededUser> users = new ArrayList<>();
+
+    private record SeededUser(String email, String accessToken, String refreshToken) {
+    }
+
+    @Test
+    void authenticationMix() throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "30s"));
+        Duration warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s"));
+        int seedUsers = Integer.getInteger("loadtest.users", 50);
+        // Tỷ lệ phần trăm: register / authenticate / refresh-token / management
+        int[] mix = parseMix(System.getProperty("loadtest.mix", "5,25,10,60"));
+
+        seedUsers(seedUsers);
+
+        Map<String, OperationStats> stats = Map.of(
+                "register", new OperationStats("register"),
+                "authenticate", new OperationStats("authenticate"),
+                "refresh-token", new OperationStats("refresh-token"),
+                "management", new OperationStats("management"));
+
+        run(rate, warmup, mix, stats);
+        stats.values().forEach(OperationStats::reset);
+        long start = System.nanoTime();
+        run(rate, duration, mix, stats);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        String report = report(rate, seconds, stats);
+        log.info("Load test report:{}{}", System.lineSeparator(), report);
+        Files.writeString(Path.of("target", "load-test-report.txt"), report);
+
+        assertThat(stats.values().stream().mapToLong(OperationStats::count).sum()).isPositive();
+    }
+
+    private void run(int rate, Duration duration, int[] mix, Map<String, OperationStats> stats) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = duration.toNanos() / intervalNanos;
+        long origin = System.nanoTime();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        for (long i = 0; i < total; i++) {
+            long intendedStart = origin + i * intervalNanos;
+            long delay = intendedStart - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            inFlight.add(send(pick(mix), stats, intendedStart));
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.MINUTES).exceptionally(e -> null).join();
+    }
+
+    private CompletableFuture<?> send(String operation, Map<String, OperationStats> stats, long intendedStart) {
+        SeededUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        HttpRequest request = switch (operation) {
+            case "register" -> json("/api/v1/auth/register", registerBody(nextEmail()));
+            case "authenticate" -> json("/api/v1/auth/authenticate", authenticateBody(user.email()));
+            case "refresh-token" -> HttpRequest.newBuilder(uri("/api/v1/auth/refresh-token"))
+                    .header("Authorization", "Bearer " + user.refreshToken())
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            default -> HttpRequest.newBuilder(uri("/api/v1/management"))
+                    .header("Authorization", "Bearer " + user.accessToken())
+                    .GET()
+                    .build();
+        };
+        OperationStats operationStats = stats.get(operation);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> operationStats.record(
+                        System.nanoTime() - intendedStart,
+                        error == null ? response.statusCode() : OperationStats.NO_RESPONSE));
+    }
+
+    /**
+     * Đăng ký người dùng, đổi vai trò sang MANAGER (cần cho /api/v1/management) qua BulkRoleAssignmentService để
+     * cache và nhật ký thay đổi được cập nhật như khi quản trị viên đổi vai trò, rồi đăng nhập lấy token.
+     * Mọi bước phải trả 2xx: dữ liệu seed lỗi làm kết quả đo vô nghĩa.
+     */
+    private void seedUsers(int count) throws IOException, InterruptedException {
+        List<String> emails = new ArrayList<>(count);
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = nextEmail();
+            send("seed register", json("/api/v1/auth/register", registerBody(email)));
+            emails.add(email);
+            ids.add(userRepository.findByEmail(email).orElseThrow().getId());
+        }
+
+        String jobId = bulkRoleAssignmentService.submit(Role.MANAGER.name(),
+                BulkRoleUpdateRequest.builder().userIds(ids).build(), null).getId();
+        BulkRoleJobResponse job = bulkRoleAssignmentService.find(jobId).orElseThrow();
+        for (int i = 0; i < 1000 && job.getStatus().equals("RUNNING"); i++) {
+            Thread.sleep(10);
+            job = bulkRoleAssignmentService.find(jobId).orElseThrow();
+        }
+        assertThat(job.getStatus()).as("seed role assignment").isEqualTo("COMPLETED");
+
+        // Đăng nhập sau khi đổi vai trò: đổi vai trò tăng token epoch, token cấp trước đó đã bị thu hồi
+        for (String email : emails) {
+            JsonNode tokens = objectMapper.readTree(
+                    send("seed authenticate", json("/api/v1/auth/authenticate", authenticateBody(email))));
+            SeededUser user = new SeededUser(email, tokens.path("access_token").asText(), tokens.path("refresh_token").asText());
+            assertThat(user.accessToken()).as("access token of %s", email).isNotEmpty();
+            assertThat(user.refreshToken()).as("refresh token of %s", email).isNotEmpty();
+            users.add(user);
+        }
+    }
+
+    private String send(String step, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("%s: %s", step, response.body()).isBetween(200, 299);
+        return response.body();
+    }
+
+    private String registerBody(String email) {
+        return "{\"firstname\":\"Load\",\"lastname\":\"Test\",\"email\":\"" + email
+                + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private String authenticateBody(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private String nextEmail() {
+        return "load-" + userSequence.incrementAndGet() + "@example.com";
+    }
+
+    private HttpRequest json(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String pick(int[] mix) {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if ((roll -= mix[0]) < 0) {
+            return "register";
+        }
+        if ((roll -= mix[1]) < 0) {
+            return "authenticate";
+        }
+        if (roll - mix[2] < 0) {
+            return "refresh-token";
+        }
+        return "management";
+    }
+
+    private static int[] parseMix(String mix) {
+        String[] parts = mix.split(",");
+        int[] weights = new int[4];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = Integer.parseInt(parts[i].trim());
+        }
+        return weights;
+    }
+
+    private static String report(int rate, double seconds, Map<String, OperationStats> stats) {
+        StringBuilder report = new StringBuilder()
+                .append(String.format("target rate %d req/s, measured %.1f s%n", rate, seconds))
+                .append(OperationStats.header()).append(System.lineSeparator());
+        long total = 0;
+        for (String name : List.of("register", "authenticate", "refresh-token", "management")) {
+            OperationStats operationStats = stats.get(name);
+            operationStats.freeze();
+            total += operationStats.count();
+            report.append(operationStats.format(seconds)).append(System.lineSeparator());
+        }
+        report.append(String.format("total throughput %.1f req/s%n", total / seconds));
+        report.append("status codes").append(System.lineSeparator());
+        for (String name : List.of("register", "authenticate", "refresh-token", "management")) {
+            report.append(stats.get(name).formatStatuses()).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+}
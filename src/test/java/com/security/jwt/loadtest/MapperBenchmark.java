@@ -0,0 +1,71 @@
+package com.security.jwt.loadtest;
+
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.entity.User;
+import com.security.jwt.mapper.UserMapper;
+import com.security.jwt.mapper.UserMapperImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * So sánh mapper MapStruct sinh lúc biên dịch với ModelMapper (reflection) khi map danh sách User.
+ * Chạy cùng load test: mvn test -Pload-test -Dtest=MapperBenchmark
+ */
+@Slf4j
+@Tag("load")
+class MapperBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 2_000);
+    private static final int LIST_SIZE = 100;
+
+    @Test
+    void compareMappers() {
+        List<User> users = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            users.add(User.builder()
+                    .id(i)
+                    .firstname("First" + i)
+                    .lastname("Last" + i)
+                    .email("user" + i + "@example.com")
+                    .role("USER")
+                    .createdDate(Instant.now())
+                    .build());
+        }
+
+        // Thời gian dựng mapper và lần map đầu tiên (ModelMapper phân tích type map lúc này)
+        long start = System.nanoTime();
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.map(users.get(0), UserResponse.class);
+        log.info(String.format("%-12s first map %8.2f ms", "modelmapper", (System.nanoTime() - start) / 1e6));
+        start = System.nanoTime();
+        UserMapper userMapper = new UserMapperImpl();
+        userMapper.toDTO(users.get(0));
+        log.info(String.format("%-12s first map %8.2f ms", "mapstruct", (System.nanoTime() - start) / 1e6));
+
+        report("modelmapper", users, list -> {
+            List<UserResponse> result = new ArrayList<>(list.size());
+            list.forEach(user -> result.add(modelMapper.map(user, UserResponse.class)));
+            return result;
+        });
+        report("mapstruct", users, userMapper::toDTOList);
+    }
+
+    private static void report(String name, List<User> users, Function<List<User>, List<UserResponse>> mapper) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.apply(users);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.apply(users);
+        }
+        double nanosPerUser = (System.nanoTime() - start) / (double) ITERATIONS / users.size();
+        log.info(String.format("%-12s %10.0f ns/user", name, nanosPerUser));
+    }
+}
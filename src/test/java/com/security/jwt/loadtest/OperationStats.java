@@ -0,0 +1,92 @@
+package com.security.jwt.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Thống kê độ trễ và kết quả của một loại request trong bài load test.
+ */
+class OperationStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // Mã trạng thái thay cho request lỗi ở tầng kết nối (timeout, connection reset), không có HTTP status
+    static final int NO_RESPONSE = 0;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    // Số request theo HTTP status, để phân biệt 503 của bộ giới hạn với 401/403 khi đọc kết quả
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private Histogram histogram;
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param latencyNanos Tính từ thời điểm request lẽ ra được gửi (tránh coordinated omission).
+     * @param status HTTP status, hoặc {@link #NO_RESPONSE} nếu không nhận được response.
+     */
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        boolean success = status >= 200 && status < 400;
+        (success ? succeeded : failed).increment();
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Bỏ số liệu của giai đoạn warm-up.
+     */
+    void reset() {
+        recorder.reset();
+        succeeded.reset();
+        failed.reset();
+        statuses.clear();
+    }
+
+    void freeze() {
+        histogram = recorder.getIntervalHistogram();
+    }
+
+    long count() {
+        return succeeded.sum() + failed.sum();
+    }
+
+    String format(double seconds) {
+        return String.format("%-16s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                name,
+                count(),
+                failed.sum(),
+                count() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    /**
+     * Số request theo status, ví dụ "200=950 401=12 503=38".
+     */
+    String formatStatuses() {
+        return new TreeMap<>(statuses).entrySet().stream()
+                .map(entry -> (entry.getKey() == NO_RESPONSE ? "no-response" : entry.getKey()) + "=" + entry.getValue().sum())
+                .collect(Collectors.joining(" ", String.format("%-16s ", name), ""));
+    }
+
+    static String header() {
+        return String.format("%-16s %9s %8s %10s %9s %9s %9s %9s",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
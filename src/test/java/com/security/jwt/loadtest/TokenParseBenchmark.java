@@ -0,0 +1,69 @@
+package com.security.jwt.loadtest;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.repository.PermissionDefinitionRepository;
+import com.security.jwt.repository.RoleDefinitionRepository;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.security.JwtService;
+import com.security.jwt.security.RoleRegistry;
+import com.security.jwt.security.TokenEpochRegistry;
+import com.security.jwt.security.UserDetail;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * So sánh kích thước và tốc độ kiểm tra token giữa profile standard và compact.
+ * Chạy cùng load test: mvn test -Pload-test -Dtest=TokenParseBenchmark
+ */
+@Slf4j
+@Tag("load")
+class TokenParseBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 50_000);
+
+    @Test
+    void compareProfiles() {
+        TokenEpochRegistry registry = new TokenEpochRegistry(mock(UserRepository.class));
+        JwtService standard = jwtService(registry, JwtService.TokenProfile.STANDARD);
+        JwtService compact = jwtService(registry, JwtService.TokenProfile.COMPACT);
+        UserDetail admin = new UserDetail(User.builder().id(1).email("admin@example.com").role(Role.ADMIN.name()).build());
+
+        String standardToken = standard.generateToken(admin);
+        String compactToken = compact.generateToken(admin);
+
+        report("standard", standardToken, () -> standard.isTokenValid(standardToken, admin));
+        report("compact", compactToken, () -> compact.isTokenValid(compactToken, admin));
+    }
+
+    private static void report(String name, String token, Supplier<?> parse) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            parse.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            parse.get();
+        }
+        double nanosPerOp = (System.nanoTime() - start) / (double) ITERATIONS;
+        log.info(String.format("%-14s %4d chars %10.0f ns/parse", name, token.length(), nanosPerOp));
+    }
+
+    private static JwtService jwtService(TokenEpochRegistry registry, JwtService.TokenProfile profile) {
+        RoleRegistry roles = new RoleRegistry(mock(RoleDefinitionRepository.class),
+                mock(PermissionDefinitionRepository.class), mock(PlatformTransactionManager.class));
+        JwtService jwtService = new JwtService(registry, roles);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 120_000L);
+        ReflectionTestUtils.setField(jwtService, "profile", profile);
+        return jwtService;
+    }
+}
@@ -0,0 +1,54 @@
+package com.security.jwt.mapper;
+
+import com.security.jwt.dto.request.RegisterRequest;
+import com.security.jwt.dto.response.AdminUserResponse;
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final AdminUserMapper adminUserMapper = new AdminUserMapperImpl();
+    private final RegisterRequestMapper registerRequestMapper = new RegisterRequestMapperImpl();
+
+    @Test
+    void mapsUserToResponsesWithoutPassword() {
+        User user = User.builder()
+                .id(7)
+                .firstname("An")
+                .lastname("Nguyen")
+                .email("an@example.com")
+                .password("hash")
+                .role("USER")
+                .tokenEpoch(2)
+                .createdDate(Instant.EPOCH)
+                .build();
+
+        List<UserResponse> responses = userMapper.toDTOList(List.of(user, user));
+        assertThat(responses).hasSize(2).allSatisfy(response -> assertThat(response)
+                .isEqualTo(new UserResponse(7, "An", "Nguyen", "an@example.com", "USER")));
+
+        AdminUserResponse admin = adminUserMapper.toDTO(user);
+        assertThat(admin.getTokenEpoch()).isEqualTo(2);
+        assertThat(admin.getCreatedDate()).isEqualTo(Instant.EPOCH);
+
+        assertThat(registerRequestMapper.toDTO(user).getPassword()).isNull();
+    }
+
+    @Test
+    void registerRequestNeverCopiesRawPassword() {
+        User user = registerRequestMapper.toEntity(
+                new RegisterRequest("An", "Nguyen", "an@example.com", "plain-text"));
+
+        assertThat(user.getEmail()).isEqualTo("an@example.com");
+        // Vai trò do service gán, không lấy từ request
+        assertThat(user.getRole()).isNull();
+        assertThat(user.getPassword()).isNull();
+    }
+}
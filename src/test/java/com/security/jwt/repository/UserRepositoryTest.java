@@ -0,0 +1,54 @@
+package com.security.jwt.repository;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findByEmailResolvesThroughNaturalIdAndSecondLevelCache() {
+        userRepository.save(User.builder()
+                .firstname("Natural")
+                .lastname("Id")
+                .email("natural-id@example.com")
+                .password("secret")
+                .role(Role.USER.name())
+                .build());
+
+        // Lần đọc đầu tiên nạp User vào second-level cache
+        assertThat(userRepository.findByEmail("natural-id@example.com")).isPresent();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(userRepository.findByEmail("natural-id@example.com")).isPresent();
+        assertThat(userRepository.findByEmail("natural-id@example.com")).isPresent();
+
+        // Hai lần tìm người dùng đã có trong cache không cần truy vấn SQL nào
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+package com.security.jwt.security;
+
+import com.security.jwt.utils.Md4;
+import com.security.jwt.utils.SortedHashFile;
+import com.security.jwt.utils.SortedHashFileBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BreachedPasswordCheckerTest {
+
+    @Test
+    void md4MatchesKnownNtlmHash() {
+        assertThat(HexFormat.of().formatHex(Md4.digest(new byte[0]))).isEqualTo("31d6cfe0d16ae931b73c59d7e0c089c0");
+        assertThat(HexFormat.of().formatHex(Md4.digest("password".getBytes(StandardCharsets.UTF_16LE))))
+                .isEqualTo("8846f7eaee8fb117ad06bdd830b7586c");
+    }
+
+    @Test
+    void findsBreachedPasswordsAmongRandomHashes(@TempDir Path dir) throws Exception {
+        // Dump giả lập: hash ngẫu nhiên cộng hash của vài mật khẩu đã biết, sắp xếp như bản "ordered by hash"
+        List<String> lines = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            lines.add(String.format("%016X%024X:%d", random.nextLong(), 0, 1 + random.nextInt(100)));
+        }
+        for (String password : List.of("password", "123456", "Tr0ub4dor&3")) {
+            lines.add(sha1Hex(password) + ":1000");
+        }
+        lines.sort(null);
+        Path file = dir.resolve("breached-sha1.bin");
+        long written = SortedHashFileBuilder.build(new StringReader(String.join("\n", lines)), file,
+                SortedHashFile.HashType.SHA1, 1);
+        assertThat(written).isEqualTo(lines.size());
+
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(new SimpleMeterRegistry());
+        try (SortedHashFile hashes = SortedHashFile.open(file)) {
+            checker.use(hashes);
+            assertThat(checker.isBreached("password")).isTrue();
+            assertThat(checker.isBreached("Tr0ub4dor&3")).isTrue();
+            assertThat(checker.isBreached("correct horse battery staple 42")).isFalse();
+            assertThat(hashes.size()).isEqualTo(lines.size());
+        }
+    }
+
+    @Test
+    void builderRejectsUnsortedInput(@TempDir Path dir) {
+        String input = "FFFF000000000000000000000000000000000000:1\n0000000000000000000000000000000000000000:1\n";
+        assertThatThrownBy(() -> SortedHashFileBuilder.build(new StringReader(input), dir.resolve("x.bin"),
+                SortedHashFile.HashType.SHA1, 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not sorted");
+    }
+
+    private static String sha1Hex(String password) throws NoSuchAlgorithmException {
+        return HexFormat.of().withUpperCase()
+                .formatHex(MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+}
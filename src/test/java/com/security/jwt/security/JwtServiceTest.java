@@ -0,0 +1,95 @@
+package com.security.jwt.security;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Permission;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.repository.PermissionDefinitionRepository;
+import com.security.jwt.repository.RoleDefinitionRepository;
+import com.security.jwt.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class JwtServiceTest {
+
+    static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService standard;
+    private JwtService compact;
+    private UserDetail manager;
+
+    @BeforeEach
+    void setUp() {
+        TokenEpochRegistry registry = new TokenEpochRegistry(mock(UserRepository.class));
+        standard = jwtService(registry, JwtService.TokenProfile.STANDARD);
+        compact = jwtService(registry, JwtService.TokenProfile.COMPACT);
+        manager = new UserDetail(User.builder()
+                .id(42)
+                .email("manager@example.com")
+                .role(Role.MANAGER.name())
+                .build());
+    }
+
+    static JwtService jwtService(TokenEpochRegistry registry, JwtService.TokenProfile profile) {
+        JwtService jwtService = new JwtService(registry, roleRegistry());
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 120_000L);
+        ReflectionTestUtils.setField(jwtService, "profile", profile);
+        return jwtService;
+    }
+
+    static RoleRegistry roleRegistry() {
+        // Không gọi init(): registry giữ snapshot mặc định dựng từ enum
+        return new RoleRegistry(mock(RoleDefinitionRepository.class), mock(PermissionDefinitionRepository.class),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void compactTokenIsSmallerAndCarriesPermissions() {
+        String standardToken = standard.generateToken(manager);
+        String compactToken = compact.generateToken(manager);
+
+        assertThat(compactToken.length()).isLessThan(standardToken.length());
+        assertThat(header(compactToken)).isEqualTo("{\"alg\":\"HS256\"}");
+        assertThat(compact.extractPermissions(compactToken)).isEqualTo(permissionNames(Role.MANAGER));
+        assertThat(standard.extractPermissions(standardToken)).isEmpty();
+    }
+
+    @Test
+    void bothProfilesAcceptEachOthersTokens() {
+        String standardToken = standard.generateToken(manager);
+        String compactToken = compact.generateToken(manager);
+
+        assertThat(compact.isTokenValid(standardToken, manager)).isTrue();
+        assertThat(standard.isTokenValid(compactToken, manager)).isTrue();
+        assertThat(standard.extractUsername(compactToken)).isEqualTo("manager@example.com");
+    }
+
+    @Test
+    void compactTokenEpochIsChecked() {
+        manager.getUser().setTokenEpoch(3);
+        String compactToken = compact.generateRefreshToken(manager);
+        assertThat(compact.isTokenValid(compactToken, manager)).isTrue();
+
+        TokenEpochRegistry bumped = new TokenEpochRegistry(mock(UserRepository.class));
+        bumped.update(42, 4);
+        assertThat(jwtService(bumped, JwtService.TokenProfile.COMPACT).isTokenValid(compactToken, manager)).isFalse();
+    }
+
+    private static Set<String> permissionNames(Role role) {
+        return role.getPermissions().stream().map(Permission::getPermission).collect(Collectors.toSet());
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+    }
+}
@@ -0,0 +1,61 @@
+package com.security.jwt.security;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserArchiveRepository;
+import com.security.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class KnownEmailFilterTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserArchiveRepository userArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rebuildStreamsRegisteredEmailsAndRegisterEventsAreAdded() {
+        userRepository.saveAndFlush(User.builder()
+                .firstname("Known")
+                .lastname("User")
+                .email("Known@Example.com")
+                .password("x")
+                .role(Role.USER.name())
+                .build());
+
+        KnownEmailFilter filter = new KnownEmailFilter(userRepository, userArchiveRepository, transactionManager,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.001);
+        filter.init();
+
+        assertThat(filter.mightExist(" known@example.COM")).isTrue();
+        assertThat(filter.mightExist("stranger@example.com")).isFalse();
+
+        filter.onUserChanged(new UserChangedEvent(2, "stranger@example.com", UserChangeType.REGISTER));
+        assertThat(filter.mightExist("stranger@example.com")).isTrue();
+
+        // Đường đăng ký trên node này thêm trực tiếp
+        filter.add("Local@Example.com");
+        assertThat(filter.mightExist("local@example.com")).isTrue();
+        assertThat(filter.mightExist("other@example.com")).isFalse();
+    }
+}
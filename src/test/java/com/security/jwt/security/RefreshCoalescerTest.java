@@ -0,0 +1,90 @@
+package com.security.jwt.security;
+
+import com.security.jwt.config.CacheRegionProperties;
+import com.security.jwt.dto.response.AuthenticationResponse;
+import com.security.jwt.exception.InvalidTokenException;
+import com.security.jwt.utils.MyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RefreshCoalescer coalescer(Duration grace) {
+        CacheRegionProperties properties = new CacheRegionProperties();
+        CacheRegionProperties.Region region = new CacheRegionProperties.Region();
+        region.setExpireAfterWrite(grace);
+        properties.getRegions().put(RefreshCoalescer.REGION, region);
+        return new RefreshCoalescer(new MyCache(new CaffeineCacheManager(), properties, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void concurrentRefreshesShareOneIssuedToken() throws Exception {
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+        AtomicInteger issued = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AuthenticationResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return coalescer.refresh("refresh-token", () -> {
+                        sleep(50);
+                        return new AuthenticationResponse("access-" + issued.incrementAndGet(), "refresh-token");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<AuthenticationResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getAccessToken()).isEqualTo("access-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).hasValue(1);
+        assertThat(meterRegistry.counter("security.refresh.coalesced").count()).isEqualTo(7);
+        // Token khác không dùng chung kết quả
+        assertThat(coalescer.refresh("other-token", () -> new AuthenticationResponse("other", "other-token"))
+                .getAccessToken()).isEqualTo("other");
+    }
+
+    @Test
+    void failuresAreNotCachedAndResultsExpireAfterGrace() {
+        RefreshCoalescer coalescer = coalescer(Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> coalescer.refresh("token", () -> {
+            throw InvalidTokenException.INVALID;
+        })).isSameAs(InvalidTokenException.INVALID);
+        assertThat(coalescer.refresh("token", () -> new AuthenticationResponse("first", "token")).getAccessToken())
+                .isEqualTo("first");
+
+        sleep(100);
+        assertThat(coalescer.refresh("token", () -> new AuthenticationResponse("second", "token")).getAccessToken())
+                .isEqualTo("second");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.security.jwt.security;
+
+import com.security.jwt.exception.InvalidTokenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RejectedTokenCacheTest {
+
+    @Test
+    void remembersRejectionReasonUntilTtl() throws InterruptedException {
+        // Seed ngẫu nhiên: hai token trong cùng bảng có thể trùng ô và ghi đè nhau, nên mỗi token một bảng
+        RejectedTokenCache cache = new RejectedTokenCache(16, Duration.ofMillis(50), new SimpleMeterRegistry());
+        RejectedTokenCache expiredCache = new RejectedTokenCache(16, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        cache.reject("forged", InvalidTokenException.INVALID);
+        expiredCache.reject("expired", InvalidTokenException.EXPIRED);
+
+        assertThat(cache.lookup("forged")).isSameAs(InvalidTokenException.INVALID);
+        assertThat(expiredCache.lookup("expired")).isSameAs(InvalidTokenException.EXPIRED);
+        assertThat(cache.lookup("unseen")).isNull();
+
+        Thread.sleep(100);
+        assertThat(cache.lookup("forged")).isNull();
+    }
+
+    @Test
+    void memoryStaysFixedUnderManyDistinctTokens() {
+        RejectedTokenCache cache = new RejectedTokenCache(16, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        for (int i = 0; i < 100_000; i++) {
+            cache.reject("token-" + i, InvalidTokenException.INVALID);
+        }
+
+        // Token gần nhất vẫn được nhớ, phần lớn token cũ đã bị ghi đè
+        assertThat(cache.lookup("token-99999")).isNotNull();
+        long remembered = IntStream.range(0, 100_000)
+                .filter(i -> cache.lookup("token-" + i) != null)
+                .count();
+        assertThat(remembered).isLessThanOrEqualTo(16);
+    }
+}
@@ -0,0 +1,108 @@
+package com.security.jwt.security;
+
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangeBatchEvent;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenEpochRegistryTest {
+
+    private static final int USERS = 2000;
+    private static final int EPOCHS = 20;
+
+    @Test
+    void readersSeeMonotonicEpochsWhileWritersGrowTheTable() throws Exception {
+        TokenEpochRegistry registry = new TokenEpochRegistry(mock(UserRepository.class));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                int offset = w;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    // Mỗi vòng thêm người dùng mới (bảng phải rehash) và tăng epoch của người dùng cũ
+                    for (int epoch = 1; epoch <= EPOCHS; epoch++) {
+                        for (int userId = 1 + offset; userId <= USERS; userId += 2) {
+                            registry.update(userId, epoch);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    int[] lastSeen = new int[USERS + 1];
+                    while (writing.get()) {
+                        for (int userId = 1; userId <= USERS; userId++) {
+                            int epoch = registry.currentEpoch(userId);
+                            assertThat(epoch).isBetween(lastSeen[userId], EPOCHS);
+                            lastSeen[userId] = epoch;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+
+        for (int userId = 1; userId <= USERS; userId++) {
+            assertThat(registry.currentEpoch(userId)).isEqualTo(EPOCHS);
+        }
+        // Epoch không giảm
+        registry.update(1, 3);
+        assertThat(registry.currentEpoch(1)).isEqualTo(EPOCHS);
+        assertThat(registry.currentEpoch(USERS + 1)).isZero();
+    }
+
+    @Test
+    void batchAppliesCarriedEpochsWithoutReadingTheDatabase() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenEpochById(4)).thenReturn(Optional.of(2));
+        TokenEpochRegistry registry = new TokenEpochRegistry(userRepository);
+
+        registry.onUserChanges(new UserChangeBatchEvent(List.of(
+                new UserChangedEvent(1, "a@example.com", UserChangeType.ROLE_CHANGED, "MANAGER", 3),
+                new UserChangedEvent(2, "b@example.com", UserChangeType.ROLE_CHANGED, "MANAGER", 1),
+                new UserChangedEvent(3, null, UserChangeType.FRIENDSHIP_CHANGED),
+                // Dòng nhật ký cũ không mang epoch: đọc lại
+                new UserChangedEvent(4, "d@example.com", UserChangeType.TOKENS_REVOKED))));
+
+        assertThat(registry.currentEpoch(1)).isEqualTo(3);
+        assertThat(registry.currentEpoch(2)).isEqualTo(1);
+        assertThat(registry.currentEpoch(3)).isZero();
+        assertThat(registry.currentEpoch(4)).isEqualTo(2);
+        verify(userRepository).findTokenEpochById(4);
+        verifyNoMoreInteractions(userRepository);
+    }
+}
@@ -0,0 +1,77 @@
+package com.security.jwt.service;
+
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Khung chung cho test service chạy trên H2 với JPA thật: không bọc test trong transaction (service tự commit để
+ * sự kiện sau commit được phát), có MeterRegistry, và xóa second-level cache sau mỗi test. Lớp con tự khai báo
+ * các bean service cần dùng bằng @Import và cấu hình riêng bằng @TestPropertySource.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(AbstractJpaServiceTest.MeterRegistryConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class AbstractJpaServiceTest {
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Second-level cache (JCache) dùng chung cho mọi context test trong JVM, mỗi context một DB H2 riêng với id
+    // trùng nhau: xóa User đã nạp để test khác không đọc nhầm
+    @AfterEach
+    void evictSecondLevelCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    /**
+     * Người dùng mới với email ngẫu nhiên, quyền USER.
+     */
+    protected User newUser() {
+        return newUser(user());
+    }
+
+    protected User newUser(User.UserBuilder user) {
+        return userRepository.saveAndFlush(user.build());
+    }
+
+    /**
+     * Builder với giá trị mặc định cho các cột bắt buộc, để test chỉ ghi đè cột mình quan tâm.
+     */
+    protected static User.UserBuilder user() {
+        return User.builder()
+                .firstname("Test")
+                .lastname("User")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("x")
+                .role(Role.USER.name());
+    }
+}
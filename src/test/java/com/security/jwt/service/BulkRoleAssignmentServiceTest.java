@@ -0,0 +1,94 @@
+package com.security.jwt.service;
+
+import com.security.jwt.dto.request.BulkRoleUpdateRequest;
+import com.security.jwt.dto.response.BulkRoleJobResponse;
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.repository.UserChangeLogRepository;
+import com.security.jwt.security.RoleRegistry;
+import com.security.jwt.security.TokenEpochRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@TestPropertySource(properties = "application.bulk-role.chunk-size=3")
+@Import({BulkRoleAssignmentService.class, UserChangeLogService.class, RoleRegistry.class, TokenEpochRegistry.class})
+class BulkRoleAssignmentServiceTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private BulkRoleAssignmentService service;
+
+    @Autowired
+    private UserChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    @Test
+    void reassignsMatchingUsersInChunksAndBumpsTokenEpochs() throws InterruptedException {
+        String domain = UUID.randomUUID().toString().substring(0, 8) + ".example.com";
+        List<User> department = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            department.add(newUser("u" + i + "@" + domain, i == 0 ? Role.MANAGER.name() : Role.USER.name()));
+        }
+        User outsider = newUser("outsider@" + UUID.randomUUID() + ".example.com", Role.USER.name());
+        long logsBefore = changeLogRepository.count();
+
+        BulkRoleJobResponse job = await(service.submit(Role.MANAGER.name(),
+                BulkRoleUpdateRequest.builder().emailDomain(domain).build(), 1).getId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getTotal()).isEqualTo(7);
+        assertThat(job.getProcessed()).isEqualTo(7);
+        // Người đã là MANAGER không bị đổi, không bị tăng epoch
+        assertThat(job.getUpdated()).isEqualTo(6);
+        for (User user : department) {
+            User reloaded = userRepository.findById(user.getId()).orElseThrow();
+            assertThat(reloaded.getRole()).isEqualTo(Role.MANAGER.name());
+            int expectedEpoch = user.getRole().equals(Role.MANAGER.name()) ? 0 : 1;
+            assertThat(reloaded.getTokenEpoch()).isEqualTo(expectedEpoch);
+            assertThat(tokenEpochRegistry.currentEpoch(user.getId())).isEqualTo(expectedEpoch);
+        }
+        assertThat(userRepository.findById(outsider.getId()).orElseThrow().getRole()).isEqualTo(Role.USER.name());
+        assertThat(changeLogRepository.count() - logsBefore).isEqualTo(6);
+        assertThat(changeLogRepository.findAll()).filteredOn(log -> department.get(1).getId().equals(log.getUserId()))
+                .extracting("changeType", "role", "tokenEpoch")
+                .containsExactly(tuple(UserChangeType.ROLE_CHANGED, Role.MANAGER.name(), 1));
+    }
+
+    @Test
+    void explicitIdListIsProcessed() throws InterruptedException {
+        User user = newUser("ids-" + UUID.randomUUID() + "@example.com", Role.USER.name());
+
+        BulkRoleJobResponse job = await(service.submit(Role.ADMIN.name(),
+                BulkRoleUpdateRequest.builder().userIds(List.of(user.getId(), user.getId())).build(), null).getId());
+
+        assertThat(job.getTotal()).isEqualTo(1);
+        assertThat(job.getUpdated()).isEqualTo(1);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getRole()).isEqualTo(Role.ADMIN.name());
+    }
+
+    private BulkRoleJobResponse await(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            BulkRoleJobResponse job = service.find(jobId).orElseThrow();
+            if (!job.getStatus().equals("RUNNING")) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Bulk role job did not finish");
+    }
+
+    private User newUser(String email, String role) {
+        return newUser(user().email(email).role(role));
+    }
+}
@@ -0,0 +1,64 @@
+package com.security.jwt.service;
+
+import com.security.jwt.config.CacheConfig;
+import com.security.jwt.constant.FriendShipStatus;
+import com.security.jwt.exception.FriendshipException;
+import com.security.jwt.utils.MyCache;
+import com.security.jwt.utils.UserCacheInvalidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = "application.cache.invalidation.regions=friend-adjacency")
+@Import({CacheConfig.class, MyCache.class, UserCacheInvalidator.class, UserChangeLogService.class, FriendshipService.class})
+class FriendshipServiceTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Test
+    void requestAcceptAndMutualFriendsStayConsistentWithCache() {
+        int alice = newUser().getId();
+        int bob = newUser().getId();
+        int carol = newUser().getId();
+
+        assertThat(friendshipService.sendRequest(alice, bob)).isEqualTo(FriendShipStatus.WAITING_ACCEPT);
+        assertThat(friendshipService.incomingRequests(bob)).extracting("userId").containsExactly(alice);
+        // Danh sách bạn được cache trước khi chấp nhận phải bị xóa sau commit
+        assertThat(friendshipService.friendIds(alice)).isEmpty();
+
+        assertThat(friendshipService.accept(bob, alice)).isEqualTo(FriendShipStatus.FRIEND);
+        assertThat(friendshipService.areFriends(alice, bob)).isTrue();
+
+        // Lời mời ngược chiều được chấp nhận luôn
+        friendshipService.sendRequest(carol, alice);
+        assertThat(friendshipService.sendRequest(alice, carol)).isEqualTo(FriendShipStatus.FRIEND);
+        friendshipService.sendRequest(bob, carol);
+        friendshipService.accept(carol, bob);
+
+        assertThat(friendshipService.friendIds(alice)).containsExactly(sorted(bob, carol));
+        assertThat(friendshipService.mutualFriendIds(alice, bob)).containsExactly(carol);
+
+        friendshipService.remove(bob, alice);
+        assertThat(friendshipService.status(alice, bob)).isEqualTo(FriendShipStatus.NONE);
+        assertThat(friendshipService.friendIds(alice)).containsExactly(carol);
+    }
+
+    @Test
+    void cannotAcceptOwnRequest() {
+        int alice = newUser().getId();
+        int bob = newUser().getId();
+        friendshipService.sendRequest(alice, bob);
+
+        assertThatThrownBy(() -> friendshipService.accept(alice, bob)).isInstanceOf(FriendshipException.class);
+        assertThatThrownBy(() -> friendshipService.sendRequest(alice, alice)).isInstanceOf(FriendshipException.class);
+    }
+
+    private static int[] sorted(int a, int b) {
+        return a < b ? new int[]{a, b} : new int[]{b, a};
+    }
+}
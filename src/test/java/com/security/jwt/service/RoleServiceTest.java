@@ -0,0 +1,99 @@
+package com.security.jwt.service;
+
+import com.security.jwt.dto.request.RoleRequest;
+import com.security.jwt.exception.RoleConflictException;
+import com.security.jwt.exception.RoleException;
+import com.security.jwt.repository.PermissionDefinitionRepository;
+import com.security.jwt.security.AuthorizationSnapshot;
+import com.security.jwt.security.RoleRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({RoleRegistry.class, RoleService.class, UserChangeLogService.class})
+class RoleServiceTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PermissionDefinitionRepository permissionRepository;
+
+    @Test
+    void newRoleIsVisibleInSnapshotAfterCommit() {
+        AuthorizationSnapshot before = roleRegistry.current();
+        assertThat(before.role("ADMIN").authorities()).extracting(Object::toString).contains("ROLE_ADMIN", "admin:read");
+
+        roleService.definePermission("report:read");
+        roleService.saveRole("auditor", new RoleRequest(Set.of("report:read", "admin:read")));
+
+        AuthorizationSnapshot after = roleRegistry.current();
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+        AuthorizationSnapshot.CompiledRole auditor = after.role("AUDITOR");
+        assertThat(auditor.authorities()).extracting(Object::toString)
+                .containsExactlyInAnyOrder("ROLE_AUDITOR", "admin:read", "report:read");
+        assertThat(auditor.hasPermission(after.permissionId("report:read"))).isTrue();
+        // Snapshot cũ không bị sửa
+        assertThat(before.role("AUDITOR")).isNull();
+    }
+
+    @Test
+    void unknownPermissionIsRejected() {
+        assertThatThrownBy(() -> roleService.saveRole("ghost", new RoleRequest(Set.of("ghost:fly"))))
+                .isInstanceOf(RoleException.class);
+    }
+
+    @Test
+    void concurrentDefinitionsNeverOverwriteEachOther() throws Exception {
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<String> defined = new ArrayList<>();
+        try {
+            for (int round = 0; round < 5; round++) {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    String name = "race" + round + ":" + i;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            roleService.definePermission(name);
+                            return name;
+                        } catch (RoleConflictException e) {
+                            return null;
+                        }
+                    }));
+                }
+                start.countDown();
+                for (Future<String> result : results) {
+                    String name = result.get(10, TimeUnit.SECONDS);
+                    if (name != null) {
+                        defined.add(name);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Mỗi yêu cầu thành công giữ nguyên quyền của mình với id riêng; yêu cầu thua nhận 409
+        assertThat(defined).isNotEmpty();
+        assertThat(defined).allSatisfy(name -> assertThat(permissionRepository.findByName(name)).isPresent());
+        assertThat(permissionRepository.findByNameIn(defined)).extracting("id").doesNotHaveDuplicates();
+    }
+}
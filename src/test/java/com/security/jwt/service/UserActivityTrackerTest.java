@@ -0,0 +1,62 @@
+package com.security.jwt.service;
+
+import com.security.jwt.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "application.user-activity.batch-size=2")
+@Import(UserActivityTracker.class)
+class UserActivityTrackerTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private UserActivityTracker tracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void coalescesActivityPerUserAndWritesOnlyNewerTimestamps() {
+        User loggedIn = newUser();
+        User seen = newUser();
+        User ahead = newUser();
+        Instant future = Instant.now().plus(Duration.ofDays(1)).truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update("UPDATE user SET last_seen_at = ? WHERE id = ?", Timestamp.from(future), ahead.getId());
+        Instant before = Instant.now().minusSeconds(1);
+
+        tracker.recordLogin(loggedIn.getId());
+        IntStream.range(0, 1000).forEach(i -> {
+            tracker.recordSeen(loggedIn.getId());
+            tracker.recordSeen(seen.getId());
+            tracker.recordSeen(ahead.getId());
+        });
+        assertThat(tracker.pendingSize()).isEqualTo(3);
+
+        assertThat(tracker.flush()).isEqualTo(3);
+        assertThat(tracker.pendingSize()).isZero();
+        assertThat(tracker.flush()).isZero();
+
+        assertThat(timestamp("last_login_at", loggedIn)).isAfter(before);
+        assertThat(timestamp("last_seen_at", loggedIn)).isAfter(before);
+        // Chỉ có request đã xác thực, không có đăng nhập: last_login_at giữ nguyên
+        assertThat(timestamp("last_login_at", seen)).isNull();
+        assertThat(timestamp("last_seen_at", seen)).isAfter(before);
+        // Giá trị mới hơn (ví dụ do node khác ghi) không bị ghi đè bằng giá trị cũ
+        assertThat(timestamp("last_seen_at", ahead)).isEqualTo(future);
+    }
+
+    private Instant timestamp(String column, User user) {
+        Timestamp value = jdbcTemplate.queryForObject("SELECT " + column + " FROM user WHERE id = ?", Timestamp.class, user.getId());
+        return value != null ? value.toInstant() : null;
+    }
+}
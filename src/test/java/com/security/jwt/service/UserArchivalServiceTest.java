@@ -0,0 +1,122 @@
+package com.security.jwt.service;
+
+import com.security.jwt.config.CacheConfig;
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.repository.UserArchiveRepository;
+import com.security.jwt.repository.UserChangeLogRepository;
+import com.security.jwt.utils.MyCache;
+import com.security.jwt.utils.UserCacheInvalidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "application.user-archival.inactive-after=30d",
+        "application.user-archival.batch-size=2",
+        "application.user-activity.flush-interval=7200000",
+        "application.cache.invalidation.regions=friend-adjacency"
+})
+@Import({UserArchivalService.class, UserChangeLogService.class, UserActivityTracker.class, CacheConfig.class,
+        MyCache.class, UserCacheInvalidator.class, FriendshipService.class})
+class UserArchivalServiceTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private UserArchivalService service;
+
+    @Autowired
+    private UserArchiveRepository userArchiveRepository;
+
+    @Autowired
+    private UserChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Test
+    void movesDormantUsersToArchiveAndRestoresThemWithTheSameId() {
+        Instant now = Instant.now();
+        User dormant = newUser();
+        User neverLoggedIn = newUser();
+        User active = newUser();
+        User unknownAge = newUser();
+        User withinFlushMargin = newUser();
+        setLastLogin(dormant, now.minus(Duration.ofDays(90)));
+        setLastLogin(active, now.minus(Duration.ofDays(1)));
+        setLastLogin(withinFlushMargin, now.minus(Duration.ofDays(30).plusHours(1)));
+        jdbcTemplate.update("UPDATE user SET created_date = ?, token_epoch = 3 WHERE id = ?",
+                Timestamp.from(now.minus(Duration.ofDays(60))), neverLoggedIn.getId());
+        long logsBefore = changeLogRepository.count();
+
+        assertThat(service.archiveDormantUsers()).isEqualTo(2);
+
+        assertThat(userRepository.findByEmail(dormant.getEmail())).isEmpty();
+        assertThat(userRepository.findById(neverLoggedIn.getId())).isEmpty();
+        assertThat(userRepository.findById(active.getId())).isPresent();
+        // Không có ngày tạo lẫn lần đăng nhập thì không đủ căn cứ để lưu trữ
+        assertThat(userRepository.findById(unknownAge.getId())).isPresent();
+        // Quá inactive-after nhưng chưa quá thêm một chu kỳ flush: node khác có thể chưa ghi hoạt động mới hơn
+        assertThat(userRepository.findById(withinFlushMargin.getId())).isPresent();
+        assertThat(service.isArchived(dormant.getEmail())).isTrue();
+        assertThat(service.findArchived(neverLoggedIn.getEmail())).get()
+                .extracting(User::getId, User::getTokenEpoch)
+                .containsExactly(neverLoggedIn.getId(), 3);
+        assertThat(changeLogRepository.count() - logsBefore).isEqualTo(2);
+
+        User restored = service.restore(neverLoggedIn.getId()).orElseThrow();
+
+        assertThat(restored.getEmail()).isEqualTo(neverLoggedIn.getEmail());
+        assertThat(restored.getTokenEpoch()).isEqualTo(3);
+        assertThat(userRepository.findByEmail(neverLoggedIn.getEmail())).get()
+                .extracting(User::getId).isEqualTo(neverLoggedIn.getId());
+        assertThat(userArchiveRepository.existsById(neverLoggedIn.getId())).isFalse();
+        assertThat(changeLogRepository.findAll()).filteredOn(log -> neverLoggedIn.getId().equals(log.getUserId()))
+                .extracting("changeType").containsExactly(UserChangeType.ARCHIVED, UserChangeType.RESTORED);
+        // Khôi phục lần hai (đăng nhập đồng thời) chỉ đọc lại dòng đã khôi phục
+        assertThat(service.restore(neverLoggedIn.getId())).isPresent();
+    }
+
+    @Test
+    void recentActivityKeepsUserAndArchivedFriendsDisappearUntilRestored() {
+        Instant now = Instant.now();
+        User dormant = newUser();
+        User seenRecently = newUser();
+        User friend = newUser();
+        setLastLogin(dormant, now.minus(Duration.ofDays(90)));
+        setLastLogin(seenRecently, now.minus(Duration.ofDays(90)));
+        jdbcTemplate.update("UPDATE user SET last_seen_at = ? WHERE id = ?",
+                Timestamp.from(now.minus(Duration.ofDays(1))), seenRecently.getId());
+        setLastLogin(friend, now);
+        friendshipService.sendRequest(friend.getId(), dormant.getId());
+        friendshipService.accept(dormant.getId(), friend.getId());
+        assertThat(friendshipService.friendIds(friend.getId())).containsExactly(dormant.getId());
+
+        service.archiveDormantUsers();
+
+        // Đăng nhập đã lâu nhưng vẫn gửi request đã xác thực gần đây: chưa lưu trữ
+        assertThat(userRepository.findById(seenRecently.getId())).isPresent();
+        assertThat(service.isArchived(dormant.getEmail())).isTrue();
+        assertThat(friendshipService.friendIds(friend.getId())).isEmpty();
+
+        service.restore(dormant.getId());
+        // Khôi phục đi kèm một lần đăng nhập thành công
+        setLastLogin(dormant, now);
+
+        assertThat(friendshipService.friendIds(friend.getId())).containsExactly(dormant.getId());
+    }
+
+    private void setLastLogin(User user, Instant at) {
+        jdbcTemplate.update("UPDATE user SET last_login_at = ? WHERE id = ?", Timestamp.from(at), user.getId());
+    }
+}
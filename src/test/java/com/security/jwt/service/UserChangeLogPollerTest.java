@@ -0,0 +1,91 @@
+package com.security.jwt.service;
+
+import com.security.jwt.config.CacheConfig;
+import com.security.jwt.entity.UserChangeLog;
+import com.security.jwt.enum_constant.UserChangeType;
+import com.security.jwt.event.UserChangedEvent;
+import com.security.jwt.repository.UserChangeLogRepository;
+import com.security.jwt.utils.MyCache;
+import com.security.jwt.utils.UserCacheInvalidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "application.cache.invalidation.regions=myCache",
+        "application.cache.invalidation.commit-grace=10s"
+})
+@Import({CacheConfig.class, MyCache.class, UserChangeLogPoller.class, UserCacheInvalidator.class})
+@RecordApplicationEvents
+class UserChangeLogPollerTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private UserChangeLogRepository repository;
+
+    @Autowired
+    private UserChangeLogPoller poller;
+
+    @Autowired
+    private MyCache myCache;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void pollEvictsChangedUsersAndAdvancesHighWaterMark() {
+        myCache.saveToCache("a@example.com", "cached");
+        myCache.saveToCache("b@example.com", "cached");
+
+        long start = poller.getHighWaterMark();
+        UserChangeLog first = repository.save(log(1, "a@example.com", Instant.now()));
+        UserChangeLog second = repository.save(log(2, "c@example.com", Instant.now()));
+
+        poller.poll();
+
+        assertThat(myCache.getFromCache("a@example.com")).isNull();
+        assertThat(myCache.getFromCache("b@example.com")).isEqualTo("cached");
+        assertThat(events.stream(UserChangedEvent.class)).hasSize(2);
+        assertThat(poller.getHighWaterMark()).isEqualTo(second.getId());
+        assertThat(first.getId()).isGreaterThan(start);
+
+        // Các thay đổi đã đọc không được phát lại
+        poller.poll();
+        assertThat(events.stream(UserChangedEvent.class)).hasSize(2);
+    }
+
+    @Test
+    void recentGapHoldsHighWaterMarkUntilGraceExpires() {
+        long start = poller.getHighWaterMark();
+        // Mô phỏng một transaction có id nhỏ hơn chưa commit: bỏ trống id start + 1
+        repository.save(log(1, "skip@example.com", Instant.now()));
+        UserChangeLog afterGap = repository.save(log(2, "gap@example.com", Instant.now()));
+        repository.deleteById(start + 1);
+
+        poller.poll();
+        assertThat(poller.getHighWaterMark()).isEqualTo(start);
+        assertThat(events.stream(UserChangedEvent.class)).hasSize(1);
+
+        // Khi bản ghi sau khoảng trống đã quá thời gian chờ commit thì khoảng trống bị bỏ qua
+        afterGap.setCreatedAt(Instant.now().minusSeconds(60));
+        repository.save(afterGap);
+        poller.poll();
+        assertThat(poller.getHighWaterMark()).isEqualTo(afterGap.getId());
+        assertThat(events.stream(UserChangedEvent.class)).hasSize(1);
+    }
+
+    private static UserChangeLog log(int userId, String email, Instant createdAt) {
+        return UserChangeLog.builder()
+                .userId(userId)
+                .email(email)
+                .changeType(UserChangeType.PASSWORD_CHANGED)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.security.jwt.service;
+
+import com.security.jwt.dto.response.UserResponse;
+import com.security.jwt.entity.User;
+import com.security.jwt.mapper.UserMapperImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({UserSearchIndex.class, UserSearchService.class, UserMapperImpl.class})
+class UserSearchIndexTest extends AbstractJpaServiceTest {
+
+    @Autowired
+    private UserSearchIndex index;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Test
+    void findsUsersByEmailAndAccentInsensitiveNamePrefix() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        User first = newUser("Nguyễn", "Đức", "duc." + tag + "@example.com");
+        User second = newUser("Nguyen", "Anh", "anh." + tag + "@example.com");
+        index.init();
+
+        assertThat(index.search("duc." + tag, 10)).extracting(UserResponse::getId).containsExactly(first.getId());
+        assertThat(index.search("NGUYEN", 10)).extracting(UserResponse::getId)
+                .contains(first.getId(), second.getId());
+        assertThat(index.search("đu", 10)).extracting(UserResponse::getId).contains(first.getId());
+        assertThat(userSearchService.search("nguyen", 1)).hasSize(1);
+
+        // Cập nhật tăng dần: đổi email thì khóa cũ biến mất
+        second.setEmail("changed." + tag + "@example.com");
+        index.upsert(second);
+        assertThat(index.search("anh." + tag, 10)).isEmpty();
+        assertThat(index.search("changed." + tag, 10)).extracting(UserResponse::getEmail)
+                .containsExactly("changed." + tag + "@example.com");
+    }
+
+    @Test
+    void likeFallbackEscapesWildcards() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        User user = newUser("Lan", "Tran", "lan_" + tag + "@example.com");
+        newUser("Lan", "Tran", "lanx" + tag + "@example.com");
+
+        assertThat(userRepository.searchByPrefix("lan!_" + tag + "%", PageRequest.of(0, 10)))
+                .extracting(User::getId).containsExactly(user.getId());
+
+        // Khớp nhiều cột chỉ trả về một lần, sắp xếp theo email
+        User byName = newUser("Mai" + tag, "Mai" + tag, "z." + tag + "@example.com");
+        User byEmail = newUser("Khanh", "Le", "Mai" + tag + "@example.com");
+        assertThat(userRepository.searchByPrefix("Mai" + tag + "%", PageRequest.of(0, 10)))
+                .extracting(User::getId).containsExactly(byEmail.getId(), byName.getId());
+        assertThat(userRepository.searchByPrefix("Mai" + tag + "%", PageRequest.of(1, 1)))
+                .extracting(User::getId).containsExactly(byName.getId());
+    }
+
+    private User newUser(String firstname, String lastname, String email) {
+        return newUser(user().firstname(firstname).lastname(lastname).email(email));
+    }
+}
@@ -0,0 +1,83 @@
+package com.security.jwt.service;
+
+import com.security.jwt.auditing.SecurityEventJdbcWriter;
+import com.security.jwt.auditing.SecurityEventPublisher;
+import com.security.jwt.config.CacheConfig;
+import com.security.jwt.dto.request.ChangePasswordRequest;
+import com.security.jwt.entity.User;
+import com.security.jwt.enum_constant.Role;
+import com.security.jwt.security.BreachedPasswordChecker;
+import com.security.jwt.security.TokenEpochRegistry;
+import com.security.jwt.security.UserDetail;
+import com.security.jwt.utils.MyCache;
+import com.security.jwt.utils.UserCacheInvalidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({UserService.class, UserChangeLogService.class, TokenEpochRegistry.class, BreachedPasswordChecker.class,
+        SecurityEventPublisher.class, SecurityEventJdbcWriter.class, CacheConfig.class, MyCache.class,
+        UserCacheInvalidator.class})
+class UserServiceTest extends AbstractJpaServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void revokeAndPasswordChangeKeepRoleChangedBehindTheCachedPrincipal() {
+        User principal = newUser(user().password(passwordEncoder.encode("old-password")));
+        // Đổi vai trò hàng loạt qua JDBC sau khi principal đã được nạp (và cache) với vai trò, epoch cũ
+        jdbcTemplate.update("UPDATE user SET role = ?, token_epoch = 1 WHERE id = ?", Role.MANAGER.name(), principal.getId());
+
+        userService.revokeAllTokens(principalOf(principal));
+
+        User reloaded = userRepository.findById(principal.getId()).orElseThrow();
+        assertThat(reloaded.getRole()).isEqualTo(Role.MANAGER.name());
+        assertThat(reloaded.getTokenEpoch()).isEqualTo(2);
+        assertThat(tokenEpochRegistry.currentEpoch(principal.getId())).isEqualTo(2);
+
+        userService.changePassword(ChangePasswordRequest.builder()
+                .currentPassword("old-password")
+                .newPassword("new-password")
+                .confirmationPassword("new-password")
+                .build(), principalOf(principal));
+
+        reloaded = userRepository.findById(principal.getId()).orElseThrow();
+        assertThat(reloaded.getRole()).isEqualTo(Role.MANAGER.name());
+        assertThat(reloaded.getTokenEpoch()).isEqualTo(3);
+        assertThat(passwordEncoder.matches("new-password", reloaded.getPassword())).isTrue();
+        assertThat(tokenEpochRegistry.currentEpoch(principal.getId())).isEqualTo(3);
+    }
+
+    private static Principal principalOf(User user) {
+        UserDetail detail = new UserDetail(user);
+        return new UsernamePasswordAuthenticationToken(detail, null, detail.getAuthorities());
+    }
+}
@@ -0,0 +1,94 @@
+package com.security.jwt.service;
+
+import com.security.jwt.datasource.ReplicaNode;
+import com.security.jwt.datasource.ReplicaRoutingDataSource;
+import com.security.jwt.repository.UserRepository;
+import com.security.jwt.security.JwtService;
+import com.security.jwt.security.RoleRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WarmUpRunnerTest {
+
+    private static final CountDownLatch warming = new CountDownLatch(1);
+    private static final CountDownLatch release = new CountDownLatch(1);
+    private static final AtomicInteger primaryConnections = new AtomicInteger();
+    private static final AtomicInteger replicaConnections = new AtomicInteger();
+
+    @Configuration
+    static class Config {
+
+        // Như khi tách đọc/ghi: LazyConnectionDataSourceProxy bọc routing DataSource gồm primary và một replica
+        @Bean
+        DataSource dataSource() throws Exception {
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                    pool(primaryConnections), List.of(new ReplicaNode("replica-1", pool(replicaConnections)))));
+        }
+
+        @Bean
+        WarmUpRunner warmUpRunner(DataSource dataSource) {
+            return new WarmUpRunner(mock(JwtService.class), mock(RoleRegistry.class), mock(PasswordEncoder.class),
+                    dataSource, mock(JdbcTemplate.class), mock(UserRepository.class), mock(FriendshipService.class),
+                    event -> { });
+        }
+
+        // Connection đầu tiên được mở chỉ được trả sau khi test cho phép: warm-up đang chạy dở
+        private static DataSource pool(AtomicInteger opened) throws Exception {
+            DataSource pool = mock(DataSource.class);
+            when(pool.getConnection()).thenAnswer(invocation -> {
+                opened.incrementAndGet();
+                if (warming.getCount() > 0) {
+                    warming.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                return mock(Connection.class);
+            });
+            return pool;
+        }
+    }
+
+    @Test
+    void readinessStaysRefusingUntilEveryPoolIsWarmed() throws Exception {
+        ApplicationAvailabilityBean availability = new ApplicationAvailabilityBean();
+        SpringApplication application = new SpringApplication(Config.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.addListeners(availability);
+        CompletableFuture<ConfigurableApplicationContext> started = CompletableFuture.supplyAsync(() ->
+                application.run("--application.warm-up.token-iterations=0", "--application.warm-up.password-iterations=0",
+                        "--application.warm-up.pool-connections=3", "--spring.main.banner-mode=off"));
+        try {
+            assertThat(warming.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+        } finally {
+            release.countDown();
+        }
+
+        try (ConfigurableApplicationContext context = started.get(30, TimeUnit.SECONDS)) {
+            assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+            // Mỗi pool đích được làm nóng trực tiếp, không qua proxy (proxy chỉ tạo connection ảo tới primary)
+            assertThat(primaryConnections).hasValue(3);
+            assertThat(replicaConnections).hasValue(3);
+        }
+    }
+}
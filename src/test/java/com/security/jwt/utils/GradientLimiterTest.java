@@ -0,0 +1,60 @@
+package com.security.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimiterTest {
+
+    @Test
+    void rejectsOnceLimitIsReached() {
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10, 10, 10, 0.5, 1.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(1_000_000);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limitGrowsUnderStableLatencyAndShrinksWhenLatencyRises() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100, 10, 100, 0.5, 1.5);
+
+        runWindows(limiter, 20, 1_000_000);
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        // Độ trễ tăng gấp 5 lần: hàng đợi đang hình thành
+        runWindows(limiter, 2, 5_000_000);
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyIdle() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100, 10, 10, 0.5, 1.5);
+
+        // Mỗi lúc chỉ một request: không dùng tới nửa giới hạn
+        for (int i = 0; i < 200; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(1_000_000);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    // Mỗi cửa sổ: nhận đầy giới hạn hiện tại rồi trả lại với cùng độ trễ
+    private static void runWindows(GradientLimiter limiter, int windows, long rttNanos) {
+        for (int w = 0; w < windows; w++) {
+            int admitted = 0;
+            while (admitted < 10 || limiter.getInFlight() < limiter.getLimit()) {
+                if (!limiter.tryAcquire()) {
+                    break;
+                }
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.security.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntIntHashMapTest {
+
+    @Test
+    void growsFromMinimalCapacityAndKeepsEveryEntry() {
+        IntIntHashMap map = new IntIntHashMap(1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key, -1)).isEqualTo(value));
+        assertThat(map.get(123_456_789, -1)).isEqualTo(expected.getOrDefault(123_456_789, -1));
+    }
+
+    @Test
+    void resolvesCollidingKeysByProbing() {
+        // Bội số của 2^20 chỉ khác nhau ở bit cao: trên bảng nhỏ nhiều key rơi vào cùng cụm
+        IntIntHashMap map = new IntIntHashMap(4);
+        for (int i = 1; i <= 1000; i++) {
+            map.put(i << 20, i);
+        }
+        // Ghi đè key đã có không làm tăng kích thước
+        map.put(5 << 20, -5);
+
+        assertThat(map.size()).isEqualTo(1000);
+        assertThat(map.get(5 << 20, 0)).isEqualTo(-5);
+        for (int i = 1; i <= 1000; i++) {
+            if (i != 5) {
+                assertThat(map.get(i << 20, 0)).isEqualTo(i);
+            }
+        }
+        assertThat(map.get(1001 << 20, 0)).isZero();
+    }
+
+    @Test
+    void storesZeroKeySeparatelyAndCopiesIndependently() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        assertThat(map.get(0, -1)).isEqualTo(-1);
+        map.put(0, 7);
+        map.put(1, 1);
+
+        IntIntHashMap copy = new IntIntHashMap(map);
+        copy.put(0, 8);
+        for (int i = 2; i < 100; i++) {
+            copy.put(i, i);
+        }
+
+        assertThat(map.get(0, -1)).isEqualTo(7);
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(50, -1)).isEqualTo(-1);
+        assertThat(copy.get(0, -1)).isEqualTo(8);
+        assertThat(copy.size()).isEqualTo(100);
+
+        map.clear();
+        assertThat(map.size()).isZero();
+        assertThat(map.get(0, -1)).isEqualTo(-1);
+        assertThat(copy.get(1, -1)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.security.jwt.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.security.jwt.config.CacheConfig;
+import com.security.jwt.config.CacheRegionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MyCacheTest {
+
+    private static CacheRegionProperties properties() {
+        CacheRegionProperties properties = new CacheRegionProperties();
+        properties.getDefaults().setMaximumSize(100);
+        properties.getDefaults().setExpireAfterAccess(Duration.ofMinutes(30));
+        return properties;
+    }
+
+    @Test
+    void dynamicCachesUseDefaultExpiry() {
+        CaffeineCacheManager cacheManager = new CacheConfig().cacheManager(properties());
+
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache("dynamic")).getNativeCache();
+
+        assertThat(nativeCache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(100);
+        assertThat(nativeCache.policy().expireAfterAccess().orElseThrow().getExpiresAfter(TimeUnit.MINUTES))
+                .isEqualTo(30);
+        assertThat(nativeCache.policy().expireAfterWrite()).isEmpty();
+    }
+
+    @Test
+    void loadingRegionIsSharedAndRejectsPlainRegionOfSameName() {
+        CacheRegionProperties properties = properties();
+        MyCache myCache = new MyCache(new CacheConfig().cacheManager(properties), properties, new SimpleMeterRegistry());
+
+        CacheRegion<String, Integer> lengths = myCache.loadingRegion("lengths", String::length);
+        assertThat(lengths.load("four")).isEqualTo(4);
+        assertThat(myCache.<String, Integer>loadingRegion("lengths", key -> -1)).isSameAs(lengths);
+        // Region có loader vẫn dùng được như region thường
+        assertThat(myCache.<String, Integer>region("lengths").get("four")).isEqualTo(4);
+
+        myCache.region("plain");
+        assertThatThrownBy(() -> myCache.loadingRegion("plain", key -> key))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("plain");
+    }
+}